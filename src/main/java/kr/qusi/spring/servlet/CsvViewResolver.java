@@ -0,0 +1,98 @@
+package kr.qusi.spring.servlet;
+
+import kr.qusi.spring.servlet.view.csv.CsvView;
+import kr.qusi.spring.servlet.view.csv.CsvWriter;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+/**
+ * CSV/TSV ViewResolver
+ * 뷰 이름은 기본 파일명으로 사용됨
+ */
+public class CsvViewResolver extends UrlBasedViewResolver {
+
+    /** 구분자 (기본값: ',', TSV 는 '\t') */
+    private char delimiter = ',';
+
+    private String charset = "UTF-8";
+
+    /** UTF-8 BOM 출력여부 */
+    private boolean bom;
+
+    /** 제목행 출력여부 */
+    private boolean header = true;
+
+    private int bufferSize = CsvWriter.DEFAULT_BUFFER_SIZE;
+
+    private String dateFormat = CsvView.DEFAULT_DATE_FORMAT;
+
+    public CsvViewResolver() {
+        setViewClass(requiredViewClass());
+    }
+
+    @Override
+    protected Class<?> requiredViewClass() {
+        return CsvView.class;
+    }
+
+    @Override
+    protected CsvView buildView(String viewName) throws Exception {
+        CsvView view = (CsvView) super.buildView(viewName);
+        view.setDelimiter(getDelimiter());
+        view.setCharset(getCharset());
+        view.setBom(isBom());
+        view.setHeader(isHeader());
+        view.setBufferSize(getBufferSize());
+        view.setDateFormat(getDateFormat());
+
+        return view;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    public boolean isBom() {
+        return bom;
+    }
+
+    public void setBom(boolean bom) {
+        this.bom = bom;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    public void setDateFormat(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+}
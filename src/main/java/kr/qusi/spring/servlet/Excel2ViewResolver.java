@@ -1,10 +1,62 @@
 package kr.qusi.spring.servlet;
 
 import kr.qusi.spring.servlet.view.excel.Excel2View;
+import kr.qusi.spring.servlet.view.excel.ExportAdmissionController;
+import kr.qusi.spring.servlet.view.excel.ExportEngineSelector;
+import kr.qusi.spring.servlet.view.excel.ExportMetrics;
+import kr.qusi.spring.servlet.view.excel.StreamingWorkbookWriter;
+import kr.qusi.spring.servlet.view.excel.TemplateCache;
+import kr.qusi.spring.servlet.view.excel.TemplateIndex;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.view.UrlBasedViewResolver;
 
+import javax.servlet.ServletContext;
+import java.util.zip.Deflater;
+
 public class Excel2ViewResolver extends UrlBasedViewResolver {
 
+    /** 스트리밍 모드 */
+    private boolean streaming;
+
+    /** 스트리밍 모드에서 메모리에 유지할 행 수 */
+    private int windowSize = StreamingWorkbookWriter.DEFAULT_WINDOW_SIZE;
+
+    /** 분할 파일을 임시폴더 없이 응답 zip 으로 바로 출력 */
+    private boolean pipelined;
+
+    /** 분할 파일 병렬 생성 Executor (크기가 제한된 ThreadPoolTaskExecutor 권장) */
+    private AsyncTaskExecutor partExecutor;
+
+    /** 요청당 동시에 생성할 분할 파일 최대 수 */
+    private int parallelism = Excel2View.DEFAULT_PARALLELISM;
+
+    /** 템플릿 내용 캐시 (미지정시 사용안함) */
+    private TemplateCache templateCache;
+
+    /** 시작시 템플릿 색인 생성여부 (색인에 없는 템플릿은 직접 확인) */
+    private boolean indexTemplates;
+
+    /** 시작시 템플릿 검증 및 캐시 적재여부 */
+    private boolean preloadTemplates;
+
+    private TemplateIndex templateIndex;
+
+    /** 동시 생성 제한 및 메모리 예산 (null 지정시 제한없음) */
+    private ExportAdmissionController admissionController;
+
+    /** 생성 통계 (null 지정시 수집안함) */
+    private ExportMetrics metrics;
+
+    /** 예상 크기에 따른 생성 엔진 선택 (null 지정시 jxls 사용) */
+    private ExportEngineSelector engineSelector;
+
+    /** 이미 압축된 분할 파일(.xlsx)을 압축없이(STORED) 저장 */
+    private boolean storeCompressed = true;
+
+    /** 분할 파일(.xls) 압축 수준 (0~9, -1: 기본값) */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
     public Excel2ViewResolver() {
         setViewClass(requiredViewClass());
     }
@@ -14,12 +66,36 @@ public class Excel2ViewResolver extends UrlBasedViewResolver {
         return Excel2View.class;
     }
 
+    @Override
+    protected void initServletContext(ServletContext servletContext) {
+        super.initServletContext(servletContext);
+
+        if (isIndexTemplates() && StringUtils.hasText(getPrefix())) {
+            templateIndex = TemplateIndex.scan(servletContext, getPrefix());
+
+            if (isPreloadTemplates())
+                templateIndex.preload(getTemplateCache());
+        }
+    }
+
     @Override
     protected Excel2View buildView(String viewName) throws Exception {
         Excel2View view = (Excel2View) super.buildView(viewName);
         view.setViewName(viewName);
         view.setPrefix(getPrefix());
         view.setSuffix(getSuffix());
+        view.setStreaming(isStreaming());
+        view.setWindowSize(getWindowSize());
+        view.setPipelined(isPipelined());
+        view.setPartExecutor(getPartExecutor());
+        view.setParallelism(getParallelism());
+        view.setTemplateCache(getTemplateCache());
+        view.setTemplateIndex(getTemplateIndex());
+        view.setAdmissionController(getAdmissionController());
+        view.setMetrics(getMetrics());
+        view.setEngineSelector(getEngineSelector());
+        view.setStoreCompressed(isStoreCompressed());
+        view.setCompressionLevel(getCompressionLevel());
 
         return view;
     }
@@ -29,4 +105,112 @@ public class Excel2ViewResolver extends UrlBasedViewResolver {
         super.setSuffix(suffix == null ? null : suffix.toLowerCase());
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    public AsyncTaskExecutor getPartExecutor() {
+        return partExecutor;
+    }
+
+    public void setPartExecutor(AsyncTaskExecutor partExecutor) {
+        this.partExecutor = partExecutor;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public boolean isIndexTemplates() {
+        return indexTemplates;
+    }
+
+    public void setIndexTemplates(boolean indexTemplates) {
+        this.indexTemplates = indexTemplates;
+    }
+
+    public boolean isPreloadTemplates() {
+        return preloadTemplates;
+    }
+
+    public void setPreloadTemplates(boolean preloadTemplates) {
+        this.preloadTemplates = preloadTemplates;
+    }
+
+    public TemplateIndex getTemplateIndex() {
+        return templateIndex;
+    }
+
+    public ExportAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public void setAdmissionController(ExportAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public ExportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(ExportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public ExportEngineSelector getEngineSelector() {
+        return engineSelector;
+    }
+
+    public void setEngineSelector(ExportEngineSelector engineSelector) {
+        this.engineSelector = engineSelector;
+    }
+
+    public boolean isStoreCompressed() {
+        return storeCompressed;
+    }
+
+    public void setStoreCompressed(boolean storeCompressed) {
+        this.storeCompressed = storeCompressed;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
 }
@@ -1,8 +1,16 @@
 package kr.qusi.spring.servlet;
 
 import kr.qusi.spring.servlet.view.excel.ExcelView;
+import kr.qusi.spring.servlet.view.excel.ExportAdmissionController;
+import kr.qusi.spring.servlet.view.excel.ExportEngineSelector;
+import kr.qusi.spring.servlet.view.excel.ExportMetrics;
+import kr.qusi.spring.servlet.view.excel.TemplateCache;
+import kr.qusi.spring.servlet.view.excel.TemplateIndex;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.view.UrlBasedViewResolver;
 
+import javax.servlet.ServletContext;
+
 /**
  * Excel ViewResolver
  *
@@ -11,6 +19,26 @@ import org.springframework.web.servlet.view.UrlBasedViewResolver;
  */
 public class ExcelViewResolver extends UrlBasedViewResolver {
 
+    /** 템플릿 내용 캐시 (미지정시 사용안함) */
+    private TemplateCache templateCache;
+
+    /** 시작시 템플릿 색인 생성여부 (색인에 없는 템플릿은 직접 확인) */
+    private boolean indexTemplates;
+
+    /** 시작시 템플릿 검증 및 캐시 적재여부 */
+    private boolean preloadTemplates;
+
+    private TemplateIndex templateIndex;
+
+    /** 동시 생성 제한 및 메모리 예산 (null 지정시 제한없음) */
+    private ExportAdmissionController admissionController;
+
+    /** 생성 통계 (null 지정시 수집안함) */
+    private ExportMetrics metrics;
+
+    /** 예상 크기에 따른 생성 엔진 선택 (null 지정시 jxls 사용) */
+    private ExportEngineSelector engineSelector;
+
     public ExcelViewResolver() {
         setViewClass(requiredViewClass());
     }
@@ -20,10 +48,86 @@ public class ExcelViewResolver extends UrlBasedViewResolver {
         return ExcelView.class;
     }
 
+    @Override
+    protected void initServletContext(ServletContext servletContext) {
+        super.initServletContext(servletContext);
+
+        if (isIndexTemplates() && StringUtils.hasText(getPrefix())) {
+            templateIndex = TemplateIndex.scan(servletContext, getPrefix());
+
+            if (isPreloadTemplates())
+                templateIndex.preload(getTemplateCache());
+        }
+    }
+
+    @Override
+    protected ExcelView buildView(String viewName) throws Exception {
+        ExcelView view = (ExcelView) super.buildView(viewName);
+        view.setTemplateCache(getTemplateCache());
+        view.setTemplateIndex(getTemplateIndex());
+        view.setAdmissionController(getAdmissionController());
+        view.setMetrics(getMetrics());
+        view.setEngineSelector(getEngineSelector());
+
+        return view;
+    }
+
     @Deprecated
     @Override
     public void setSuffix(String suffix) {
         super.setSuffix(null);
     }
 
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public boolean isIndexTemplates() {
+        return indexTemplates;
+    }
+
+    public void setIndexTemplates(boolean indexTemplates) {
+        this.indexTemplates = indexTemplates;
+    }
+
+    public boolean isPreloadTemplates() {
+        return preloadTemplates;
+    }
+
+    public void setPreloadTemplates(boolean preloadTemplates) {
+        this.preloadTemplates = preloadTemplates;
+    }
+
+    public TemplateIndex getTemplateIndex() {
+        return templateIndex;
+    }
+
+    public ExportAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public void setAdmissionController(ExportAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public ExportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(ExportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public ExportEngineSelector getEngineSelector() {
+        return engineSelector;
+    }
+
+    public void setEngineSelector(ExportEngineSelector engineSelector) {
+        this.engineSelector = engineSelector;
+    }
+
 }
@@ -1,20 +1,58 @@
 package kr.qusi.spring.servlet;
 
 import kr.qusi.spring.servlet.view.json.MappingJackson2JsonView;
+import kr.qusi.spring.util.ObjectMapperRegistry;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
 
 import java.util.Locale;
 
 /**
+ * JSON ViewResolver
+ * View 는 요청 상태를 갖지 않으므로 한 번만 생성하여 공유함
+ *
  * @since 0.0.1
  * @author yongseoklee
  */
 public class JsonViewResolver implements ViewResolver {
 
+    /** 미지정시 View 의 공유 Registry (Spring MVC 기본 설정) 사용 */
+    private ObjectMapperRegistry objectMapperRegistry;
+
+    private volatile View view;
+
     @Override
     public View resolveViewName(String s, Locale locale) throws Exception {
-        return new MappingJackson2JsonView();
+        View view = this.view;
+        if (view == null) {
+            synchronized (this) {
+                if (this.view == null)
+                    this.view = this.createView();
+
+                view = this.view;
+            }
+        }
+
+        return view;
+    }
+
+    /**
+     * View 생성
+     */
+    protected View createView() {
+        if (this.objectMapperRegistry == null)
+            return new MappingJackson2JsonView();
+
+        return new MappingJackson2JsonView(this.objectMapperRegistry);
+    }
+
+    public ObjectMapperRegistry getObjectMapperRegistry() {
+        return objectMapperRegistry;
+    }
+
+    public void setObjectMapperRegistry(ObjectMapperRegistry objectMapperRegistry) {
+        this.objectMapperRegistry = objectMapperRegistry;
+        this.view = null;
     }
 
 }
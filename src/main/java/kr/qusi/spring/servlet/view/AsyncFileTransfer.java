@@ -0,0 +1,314 @@
+package kr.qusi.spring.servlet.view;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * 비동기 파일 전송 (컨테이너 Thread 를 점유하지 않음)
+ * Servlet 3.1 이상은 WriteListener 로 출력 가능할 때만 쓰고(non-blocking),
+ * 3.0 은 I/O Executor 에서 청크 단위로 쓴 후 다음 청크를 다시 등록하여 전송간 Thread 를 나눠씀
+ *
+ * @see DownloadView#setAsync(boolean)
+ */
+@Slf4j
+class AsyncFileTransfer implements Runnable, AsyncListener {
+
+    /** Servlet 3.1 WriteListener (컴파일은 3.0 기준이므로 Reflection 사용) */
+    private static final Class<?> WRITE_LISTENER_CLASS = ClassUtils.isPresent("javax.servlet.WriteListener",
+            AsyncFileTransfer.class.getClassLoader()) ?
+            ClassUtils.resolveClassName("javax.servlet.WriteListener", AsyncFileTransfer.class.getClassLoader()) : null;
+
+    /** {@link #start(AsyncContext)} 에서 지정 */
+    private AsyncContext context;
+
+    private final ServletOutputStream out;
+
+    private final Executor executor;
+
+    /** 캐시된 매핑 (null 인 경우 파일에서 읽음) */
+    private final ByteBuffer mapped;
+
+    private final FileInputStream input;
+
+    private final FileChannel channel;
+
+    private final byte[] buffer;
+
+    private long position;
+
+    private final long end;
+
+    /** 대역폭 제한 (null: 제한없음) */
+    private final BandwidthManager.Transfer transfer;
+
+    /** 다음 청크의 대역폭 예약 여부 */
+    private boolean reserved;
+
+    private Method isReady;
+
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    /**
+     * 파일을 열어 전송 준비 (비동기 시작 전에 생성하여, 파일 삭제 등으로 실패하면 동기 처리에서 오류 응답)
+     */
+    AsyncFileTransfer(ServletOutputStream out, Executor executor, File file, ByteBuffer mapped,
+                      BandwidthManager.Transfer transfer, long position, long count, int chunkSize) throws IOException {
+        this.out = out;
+        this.executor = executor;
+        this.transfer = transfer;
+        this.mapped = mapped;
+        this.input = mapped == null ? new FileInputStream(file) : null;
+        this.channel = mapped == null ? input.getChannel() : null;
+        if (transfer != null)
+            chunkSize = Math.min(chunkSize, transfer.getManager().getChunkSize());
+        this.buffer = new byte[(int) Math.min(chunkSize, Math.max(count, 1))];
+        this.position = position;
+        this.end = position + count;
+    }
+
+    /**
+     * 전송 시작 (WriteListener 를 지원하면 non-blocking, 아니면 Executor 에서 전송)
+     * 시작에 실패하면 AsyncContext 를 완료하고 대역폭 예약을 반환함
+     *
+     * @param context 비동기 요청
+     */
+    void start(AsyncContext context) {
+        this.context = context;
+
+        try {
+            context.addListener(this);
+
+            Method setWriteListener = WRITE_LISTENER_CLASS != null ?
+                    ReflectionUtils.findMethod(ServletOutputStream.class, "setWriteListener", WRITE_LISTENER_CLASS) : null;
+            isReady = setWriteListener != null ? ReflectionUtils.findMethod(ServletOutputStream.class, "isReady") : null;
+
+            if (isReady != null) {
+                ReflectionUtils.invokeMethod(setWriteListener, out, createWriteListener());
+            } else {
+                schedule();
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 시작하지 않은 전송의 파일 닫기 (비동기 시작 실패시)
+     */
+    void abort() {
+        done.set(true);
+        IOUtils.closeQuietly(input);
+    }
+
+    /**
+     * Executor 전송 (청크 하나 쓰고 다음 청크 등록)
+     */
+    @Override
+    public void run() {
+        if (done.get())
+            return;
+
+        try {
+            if (throttle(false))
+                return;
+
+            if (writeChunk())
+                schedule();
+            else
+                complete();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * WriteListener.onWritePossible (출력 가능한 만큼 쓰고 반환)
+     */
+    private void onWritePossible() throws IOException {
+        while (!done.get() && isReady()) {
+            if (throttle(true))
+                return;
+
+            if (!writeChunk()) {
+                complete();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 다음 청크의 대역폭 예약 (기다려야 하면 Thread 를 점유하지 않고 재개를 예약)
+     *
+     * @param listener WriteListener 전송 여부
+     * @return 재개 예약 여부
+     */
+    private boolean throttle(final boolean listener) {
+        if (transfer == null || reserved || position >= end)
+            return false;
+
+        reserved = true;
+        long wait = transfer.reserve(Math.min(buffer.length, end - position));
+        if (wait <= 0)
+            return false;
+
+        try {
+            transfer.getManager().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (!listener) {
+                        schedule();
+                        return;
+                    }
+
+                    try {
+                        onWritePossible();
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+            }, wait);
+        } catch (RejectedExecutionException e) {
+            // BandwidthManager 종료됨
+            fail(e);
+        }
+
+        return true;
+    }
+
+    private boolean isReady() throws IOException {
+        try {
+            return (Boolean) isReady.invoke(out);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 청크 쓰기 (위치지정 읽기)
+     *
+     * @return 남은 데이터 여부
+     * @throws IOException
+     */
+    private boolean writeChunk() throws IOException {
+        if (position >= end)
+            return false;
+
+        int length = (int) Math.min(buffer.length, end - position);
+
+        if (mapped != null) {
+            mapped.position((int) position);
+            mapped.get(buffer, 0, length);
+        } else {
+            ByteBuffer target = ByteBuffer.wrap(buffer, 0, length);
+
+            while (target.hasRemaining()) {
+                if (channel.read(target, position + target.position()) < 0)
+                    throw new IOException("Unexpected end of file at " + (position + target.position()));
+            }
+        }
+
+        out.write(buffer, 0, length);
+        position += length;
+
+        if (transfer != null) {
+            transfer.record(length);
+            reserved = false;
+        }
+
+        return position < end;
+    }
+
+    private void complete() {
+        if (!done.compareAndSet(false, true))
+            return;
+
+        IOUtils.closeQuietly(input);
+        if (transfer != null)
+            transfer.close();
+        context.complete();
+    }
+
+    private void fail(Throwable t) {
+        log.debug("Async download failed: {}", t.toString());
+        complete();
+    }
+
+    private Object createWriteListener() {
+        return Proxy.newProxyInstance(WRITE_LISTENER_CLASS.getClassLoader(), new Class<?>[]{WRITE_LISTENER_CLASS},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("onWritePossible".equals(method.getName())) {
+                            onWritePossible();
+                        } else if ("onError".equals(method.getName())) {
+                            fail((Throwable) args[0]);
+                        } else if ("hashCode".equals(method.getName())) {
+                            return System.identityHashCode(proxy);
+                        } else if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        } else if ("toString".equals(method.getName())) {
+                            return "AsyncFileTransfer.WriteListener";
+                        }
+
+                        return null;
+                    }
+                });
+    }
+
+    // ========================================
+    // AsyncListener
+    // ========================================
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        done.set(true);
+        IOUtils.closeQuietly(input);
+        if (transfer != null)
+            transfer.close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        fail(new IOException("Async download timeout"));
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        fail(event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+}
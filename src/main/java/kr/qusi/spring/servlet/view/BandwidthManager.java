@@ -0,0 +1,572 @@
+package kr.qusi.spring.servlet.view;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 다운로드 대역폭 관리
+ * 전체 대역폭과 클라이언트(로그인 사용자 또는 IP)별 대역폭을 토큰 버킷으로 제한함
+ * IP 는 접속 주소(remoteAddr)를 사용하며, 신뢰하는 프록시(trustedProxies)를 거친 경우에만 X-Forwarded-For 를 사용함
+ * (임의로 지정한 헤더로 클라이언트별 제한을 우회하지 못하도록)
+ * 전송은 작은 청크 단위로 버킷을 예약하므로 동시 전송이 청크 단위로 번갈아 나가며,
+ * 한 클라이언트가 여러 파일을 받아도 클라이언트 대역폭을 넘지 못함
+ *
+ * <pre>
+ * &lt;bean id="bandwidthManager" class="kr.qusi.spring.servlet.view.BandwidthManager"&gt;
+ *     &lt;property name="globalRate" value="52428800" /&gt; &lt;!-- 50MB/s --&gt;
+ *     &lt;property name="clientRate" value="5242880" /&gt;  &lt;!-- 5MB/s --&gt;
+ * &lt;/bean&gt;
+ *
+ * downloadView.setBandwidthManager(bandwidthManager);
+ * </pre>
+ *
+ * @see DownloadView#setBandwidthManager(BandwidthManager)
+ */
+@Slf4j
+public class BandwidthManager implements InitializingBean, DisposableBean {
+
+    /** 청크 크기 기본값 */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    /** 순간 허용량 기본값 */
+    public static final long DEFAULT_BURST = 64 * 1024;
+
+    /** 유휴 클라이언트 정리 간격 */
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** 처리량 측정 구간 */
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** 전체 초당 바이트 (0: 제한없음) */
+    private long globalRate;
+
+    /** 클라이언트별 초당 바이트 (0: 제한없음) */
+    private long clientRate;
+
+    private long burst = DEFAULT_BURST;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /** 로그인 사용자는 IP 대신 사용자명으로 구분 */
+    private boolean principalKey = true;
+
+    /** X-Forwarded-For 를 신뢰하는 프록시 주소 */
+    private Set<String> trustedProxies = Collections.emptySet();
+
+    private volatile TokenBucket globalBucket;
+
+    private final ConcurrentMap<String, Client> clients = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private final Set<Transfer> transfers = Collections.newSetFromMap(new ConcurrentHashMap<Transfer, Boolean>());
+
+    /** 비동기 전송 재개 (처음 사용시 생성) */
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        globalBucket = new TokenBucket(globalRate, burst);
+    }
+
+    /**
+     * 예약된 재개는 실행하고 이후 예약은 거절 (대기중인 비동기 전송이 재개된 후 실패로 종료되도록)
+     */
+    @Override
+    public synchronized void destroy() {
+        if (scheduler != null)
+            scheduler.shutdown();
+    }
+
+    /**
+     * 전송 시작
+     *
+     * @param request
+     * @param name    전송 이름 (파일명 등)
+     * @return 전송 (완료시 close)
+     */
+    public Transfer start(HttpServletRequest request, String name) {
+        if (globalBucket == null)
+            afterPropertiesSet();
+
+        sweep();
+
+        String key = getClientKey(request);
+        Transfer transfer = new Transfer(key, name, acquireClient(key));
+        transfers.add(transfer);
+
+        return transfer;
+    }
+
+    /**
+     * 응답 출력을 제한하는 Response
+     *
+     * @param request
+     * @param response
+     * @param name     전송 이름
+     * @return 완료시 {@link ThrottledResponse#finish()} 호출
+     */
+    public ThrottledResponse wrap(HttpServletRequest request, HttpServletResponse response, String name) {
+        return new ThrottledResponse(response, start(request, name));
+    }
+
+    /**
+     * 클라이언트 구분 (로그인 사용자명 또는 IP)
+     */
+    protected String getClientKey(HttpServletRequest request) {
+        Principal principal = principalKey ? request.getUserPrincipal() : null;
+        if (principal != null)
+            return "user:" + principal.getName();
+
+        return getClientAddress(request);
+    }
+
+    /**
+     * 클라이언트 IP
+     * 신뢰하는 프록시의 요청인 경우 X-Forwarded-For 를 뒤에서부터 확인하여 신뢰하는 프록시가 아닌 첫 주소
+     */
+    protected String getClientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!trustedProxies.contains(address))
+            return address;
+
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null)
+            return address;
+
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty())
+                break;
+
+            address = hop;
+            if (!trustedProxies.contains(hop))
+                break;
+        }
+
+        return address;
+    }
+
+    /**
+     * 유휴 클라이언트 제거 (전송이 없고 버킷이 순간 허용량 이상 회복된 경우)
+     * 전송이 끝나자마자 제거하면 연속 다운로드마다 새 버킷으로 순간 허용량을 다시 받으므로 일정시간 유지
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now))
+            return;
+
+        for (Map.Entry<String, Client> entry : clients.entrySet()) {
+            Client client = entry.getValue();
+            if (client.isExpired(now) && client.retire())
+                clients.remove(entry.getKey(), client);
+        }
+    }
+
+    /**
+     * 클라이언트 조회 (잠금없이 등록, 유휴 클라이언트는 sweep 에서 제거)
+     */
+    private Client acquireClient(String key) {
+        while (true) {
+            Client client = clients.get(key);
+            if (client == null) {
+                Client created = new Client(new TokenBucket(clientRate, burst));
+                client = clients.putIfAbsent(key, created);
+                if (client == null)
+                    client = created;
+            }
+
+            if (client.acquire())
+                return client;
+
+            // 제거중인 클라이언트
+            clients.remove(key, client);
+        }
+    }
+
+    private void finish(Transfer transfer) {
+        transfers.remove(transfer);
+        transfer.client.release();
+
+        log.debug("Transfer finished: {} {} ({} bytes)", transfer.key, transfer.name, transfer.getBytes());
+    }
+
+    /**
+     * 비동기 전송 재개 예약
+     */
+    synchronized void schedule(Runnable task, long delayNanos) {
+        if (scheduler == null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bandwidth-");
+            threadFactory.setDaemon(true);
+            scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        }
+
+        scheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 전송중인 목록
+     */
+    public List<Transfer> getTransfers() {
+        return new ArrayList<>(transfers);
+    }
+
+    /**
+     * 전체 처리량 (초당 바이트)
+     */
+    public long getThroughput() {
+        long throughput = 0;
+        for (Transfer transfer : transfers)
+            throughput += transfer.getThroughput();
+
+        return throughput;
+    }
+
+    public long getGlobalRate() {
+        return globalRate;
+    }
+
+    public void setGlobalRate(long globalRate) {
+        this.globalRate = globalRate;
+        if (globalBucket != null)
+            afterPropertiesSet();
+    }
+
+    public long getClientRate() {
+        return clientRate;
+    }
+
+    /**
+     * 클라이언트별 초당 바이트 (다음 전송을 시작하는 클라이언트부터 적용)
+     */
+    public void setClientRate(long clientRate) {
+        this.clientRate = clientRate;
+    }
+
+    public long getBurst() {
+        return burst;
+    }
+
+    public void setBurst(long burst) {
+        this.burst = burst;
+        if (globalBucket != null)
+            afterPropertiesSet();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Set<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    /**
+     * X-Forwarded-For 를 신뢰하는 프록시(로드밸런서) 주소
+     */
+    public void setTrustedProxies(Set<String> trustedProxies) {
+        this.trustedProxies = trustedProxies != null ? new HashSet<>(trustedProxies) : Collections.<String>emptySet();
+    }
+
+    public boolean isPrincipalKey() {
+        return principalKey;
+    }
+
+    public void setPrincipalKey(boolean principalKey) {
+        this.principalKey = principalKey;
+    }
+
+    /**
+     * 클라이언트 (전송이 없고 버킷이 회복되면 제거)
+     */
+    private static class Client {
+
+        /** 제거됨 표시 */
+        private static final int RETIRED = Integer.MIN_VALUE;
+
+        final TokenBucket bucket;
+
+        final AtomicInteger active = new AtomicInteger();
+
+        /** 마지막 전송 완료 시각 (ns) */
+        volatile long idleSince = System.nanoTime();
+
+        Client(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        boolean acquire() {
+            while (true) {
+                int count = active.get();
+                if (count == RETIRED)
+                    return false;
+                if (active.compareAndSet(count, count + 1))
+                    return true;
+            }
+        }
+
+        void release() {
+            idleSince = System.nanoTime();
+            active.decrementAndGet();
+        }
+
+        /**
+         * 전송이 없고 순간 허용량 회복 시간 이상 유휴 상태이며 버킷이 모두 회복됨
+         */
+        boolean isExpired(long now) {
+            return active.get() == 0 && now - idleSince >= bucket.getBurstNanos() && bucket.isFull();
+        }
+
+        /**
+         * @return 제거 표시 여부 (전송이 시작되었으면 false)
+         */
+        boolean retire() {
+            return active.compareAndSet(0, RETIRED);
+        }
+
+    }
+
+    /**
+     * 전송 (클라이언트, 이름, 전송량, 처리량)
+     */
+    public class Transfer {
+
+        private final String id = UUID.randomUUID().toString();
+
+        private final String key;
+
+        private final String name;
+
+        private final Client client;
+
+        private final long startTime = System.currentTimeMillis();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile long windowStart = System.nanoTime();
+
+        private volatile long windowBytes;
+
+        private volatile long throughput;
+
+        Transfer(String key, String name, Client client) {
+            this.key = key;
+            this.name = name;
+            this.client = client;
+        }
+
+        /**
+         * 전송 예약 (전체, 클라이언트 버킷)
+         *
+         * @param length 바이트
+         * @return 기다려야 할 시간 (ns)
+         */
+        public long reserve(long length) {
+            return Math.max(globalBucket.reserve(length), client.bucket.reserve(length));
+        }
+
+        /**
+         * 전송 기록 (측정 구간마다 처리량 갱신)
+         */
+        public void record(long length) {
+            long total = bytes.addAndGet(length);
+            long now = System.nanoTime();
+            long elapsed = now - windowStart;
+
+            if (elapsed >= WINDOW_NANOS) {
+                throughput = (total - windowBytes) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+                windowBytes = total;
+                windowStart = now;
+            }
+        }
+
+        /**
+         * 예약한 시간까지 대기
+         */
+        public void await(long waitNanos) throws IOException {
+            long deadline = System.nanoTime() + waitNanos;
+
+            for (long remaining = waitNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted())
+                    throw new IOException("Transfer interrupted");
+            }
+        }
+
+        public void close() {
+            if (closed.compareAndSet(false, true))
+                finish(this);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * 클라이언트 (user:사용자명 또는 IP)
+         */
+        public String getClient() {
+            return key;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * 최근 처리량 (초당 바이트, 전송이 멈추면 줄어듬)
+         */
+        public long getThroughput() {
+            long elapsed = System.nanoTime() - windowStart;
+            if (elapsed > 2 * WINDOW_NANOS)
+                return (bytes.get() - windowBytes) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+
+            return throughput;
+        }
+
+        /**
+         * 평균 처리량 (초당 바이트)
+         */
+        public long getAverageThroughput() {
+            long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+            return bytes.get() * 1000 / elapsed;
+        }
+
+        BandwidthManager getManager() {
+            return BandwidthManager.this;
+        }
+
+    }
+
+    /**
+     * 출력을 청크 단위로 제한하는 Response
+     */
+    public static class ThrottledResponse extends HttpServletResponseWrapper {
+
+        private final Transfer transfer;
+
+        private ThrottledOutputStream outputStream;
+
+        /** 비동기 전송으로 넘겨진 경우 (완료는 비동기 전송에서 처리) */
+        private boolean detached;
+
+        ThrottledResponse(HttpServletResponse response, Transfer transfer) {
+            super(response);
+            this.transfer = transfer;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null)
+                outputStream = new ThrottledOutputStream(super.getOutputStream(), transfer);
+
+            return outputStream;
+        }
+
+        public Transfer getTransfer() {
+            return transfer;
+        }
+
+        /**
+         * 비동기 전송으로 넘김 (finish 에서 전송을 닫지 않음)
+         */
+        public void detach() {
+            this.detached = true;
+        }
+
+        /**
+         * 전송 완료
+         */
+        public void finish() {
+            if (!detached)
+                transfer.close();
+        }
+
+    }
+
+    private static class ThrottledOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream out;
+
+        private final Transfer transfer;
+
+        private final int chunkSize;
+
+        ThrottledOutputStream(ServletOutputStream out, Transfer transfer) {
+            this.out = out;
+            this.transfer = transfer;
+            this.chunkSize = transfer.getManager().getChunkSize();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int length = Math.min(len, chunkSize);
+
+                transfer.await(transfer.reserve(length));
+                out.write(b, off, length);
+                transfer.record(length);
+
+                off += length;
+                len -= length;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+    }
+
+}
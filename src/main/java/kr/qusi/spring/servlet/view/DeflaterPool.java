@@ -0,0 +1,136 @@
+package kr.qusi.spring.servlet.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Deflater 풀
+ * Deflater 는 생성시 네이티브 메모리(zlib)를 할당하므로 요청마다 생성하지 않고 재사용함
+ * 반환된 Deflater 는 reset 후 보관하며, 최대 보관 수를 넘으면 바로 해제(end)함
+ */
+public class DeflaterPool {
+
+    /** 최대 보관 수 기본값 */
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final BlockingQueue<Deflater> idle;
+
+    private final int level;
+
+    public DeflaterPool() {
+        this(Deflater.DEFAULT_COMPRESSION, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * @param level   압축 수준 (0~9, -1: 기본값)
+     * @param maxIdle 최대 보관 수
+     */
+    public DeflaterPool(int level, int maxIdle) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+
+        this.level = level;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * Deflater 대여 (zlib 헤더 없음, gzip/zip 용)
+     */
+    public Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+
+    /**
+     * Deflater 반환
+     */
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater))
+            deflater.end();
+    }
+
+    /**
+     * 풀의 Deflater 를 사용하는 gzip 출력 Stream (닫을 때 Deflater 반환)
+     *
+     * @param out 출력 Stream
+     * @return
+     * @throws IOException
+     */
+    public OutputStream gzip(OutputStream out) throws IOException {
+        return new GzipOutputStream(out, borrow());
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * gzip 형식 출력 (GZIPOutputStream 은 Deflater 를 직접 생성하므로 별도 구현)
+     */
+    private class GzipOutputStream extends DeflaterOutputStream {
+
+        private final CRC32 crc = new CRC32();
+
+        private boolean closed;
+
+        GzipOutputStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater, BUFFER_SIZE);
+            out.write(GZIP_HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (def.finished())
+                return;
+
+            super.finish();
+
+            long size = def.getBytesRead();
+            writeInt((int) crc.getValue());
+            writeInt((int) size);
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >> 8) & 0xff);
+            out.write((value >> 16) & 0xff);
+            out.write((value >> 24) & 0xff);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+
+            closed = true;
+            try {
+                finish();
+                out.close();
+            } finally {
+                release(def);
+            }
+        }
+
+    }
+
+}
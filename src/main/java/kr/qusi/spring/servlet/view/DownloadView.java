@@ -4,17 +4,37 @@ import kr.qusi.spring.servlet.view.encoding.DefaultFilenameEncoder;
 import kr.qusi.spring.servlet.view.encoding.FilenameEncoder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.util.FileCopyUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.servlet.view.AbstractView;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * 다운로드 View
@@ -25,12 +45,120 @@ import java.util.Map;
 @Slf4j
 public class DownloadView extends AbstractView {
 
+    /** 컨테이너 sendfile 지원여부 (Tomcat NIO/APR) */
+    public static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+    public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+    public static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+    public static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    /** sendfile 최소 크기 기본값 (작은 파일은 복사가 더 빠름) */
+    public static final long DEFAULT_SENDFILE_THRESHOLD = 48 * 1024;
+
+    /** 요청당 최대 Range 수 기본값 (초과시 전체 전송) */
+    public static final int DEFAULT_MAX_RANGES = 16;
+
+    /** 전송시 압축 최소 크기 기본값 */
+    public static final long DEFAULT_COMPRESSION_THRESHOLD = 2048;
+
+    /** 전송시 압축 최대 크기 기본값 (초과시 Range, sendfile 을 지원하는 일반 전송) */
+    public static final long DEFAULT_MAX_COMPRESSION_SIZE = 4L * 1024 * 1024;
+
+    /** 비동기 전송 청크 크기 기본값 */
+    public static final int DEFAULT_ASYNC_CHUNK_SIZE = 64 * 1024;
+
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final String MULTIPART_BOUNDARY = "QUSI_MULTIPART_BYTERANGES";
+
+    /** 공유 Deflater 풀 */
+    private static final DeflaterPool DEFAULT_DEFLATER_POOL = new DeflaterPool();
+
+    /** 공유 비동기 전송 Executor Thread 수 */
+    private static final int DEFAULT_ASYNC_THREADS = 4;
+
+    /** 공유 비동기 전송 Executor (처음 사용시 생성) */
+    private static Executor defaultAsyncExecutor;
+
+    private static final String GZIP = "gzip";
+
+    /** 미리 압축된 파일 확장자 (우선순위 순) */
+    private static final Map<String, String> PRECOMPRESSED_EXTENSIONS = new LinkedHashMap<>();
+
+    /** 이미 압축된 파일 확장자 (전송시 압축 제외) */
+    static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "jar", "war", "br",
+            "xlsx", "docx", "pptx", "hwpx", "pdf",
+            "png", "jpg", "jpeg", "gif", "webp", "mp3", "mp4", "avi", "mov", "woff", "woff2"));
+
+    /** 이미 압축된 ContentType (전송시 압축 제외, image/svg+xml 은 압축) */
+    private static final List<String> COMPRESSED_CONTENT_TYPES = Arrays.asList(
+            "image/", "audio/", "video/", "application/zip", "application/gzip", "application/x-gzip",
+            "application/x-7z-compressed", "application/x-rar-compressed", "application/pdf",
+            "application/vnd.openxmlformats-officedocument.");
+
+    static {
+        PRECOMPRESSED_EXTENSIONS.put("br", ".br");
+        PRECOMPRESSED_EXTENSIONS.put(GZIP, ".gz");
+    }
+
     private File file;
 
     private String filename;
 
     private FilenameEncoder filenameEncoder = new DefaultFilenameEncoder();
 
+    /** 컨테이너 지원시 sendfile 로 전송 */
+    private boolean useSendfile = true;
+
+    /** sendfile 최소 크기 */
+    private long sendfileThreshold = DEFAULT_SENDFILE_THRESHOLD;
+
+    /** Range 요청 지원 (이어받기, 분할 다운로드) */
+    private boolean acceptRanges = true;
+
+    /** 요청당 최대 Range 수 */
+    private int maxRanges = DEFAULT_MAX_RANGES;
+
+    /** ETag, Last-Modified 출력 및 조건부 요청(304) 처리 */
+    private boolean conditional = true;
+
+    /**
+     * 내용 해시 ETag 캐시 (미지정시 크기, 수정시각 기반 약한 ETag 사용)
+     * 처음 요청시 파일 전체를 읽어 해시를 계산하므로 반복해서 받는 파일에만 지정 (여러 뷰가 공유)
+     */
+    private FileETagCache etagCache;
+
+    /** Accept-Encoding 협상 (미리 압축된 .br/.gz 파일 또는 전송시 gzip 압축) */
+    private boolean compression = true;
+
+    /** 전송시 압축 최소 크기 */
+    private long compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
+    /** 전송시 압축 최대 크기 (큰 파일은 Content-Length, Range, sendfile 유지, 미리 압축된 파일은 제한없음) */
+    private long maxCompressionSize = DEFAULT_MAX_COMPRESSION_SIZE;
+
+    private DeflaterPool deflaterPool = DEFAULT_DEFLATER_POOL;
+
+    /** 비동기 전송 (Servlet 3.0 async, 느린 클라이언트가 컨테이너 Thread 를 점유하지 않음) */
+    private boolean async;
+
+    /** 비동기 전송 I/O Executor (Servlet 3.0 컨테이너에서 사용, 미지정시 공유 Executor) */
+    private Executor asyncExecutor;
+
+    /** 비동기 전송 제한시간 (ms, 0: 제한없음, -1: 컨테이너 기본값) */
+    private long asyncTimeout = -1;
+
+    private int asyncChunkSize = DEFAULT_ASYNC_CHUNK_SIZE;
+
+    /** 자주 받는 파일 메모리 매핑 캐시 (미지정시 매번 파일에서 읽음, 여러 뷰가 공유) */
+    private MappedFileCache fileCache;
+
+    /** 대역폭 제한 (미지정시 제한없음, 여러 뷰가 공유) */
+    private BandwidthManager bandwidthManager;
+
     public DownloadView(String path) {
         this(new File(path), null);
     }
@@ -80,16 +208,563 @@ public class DownloadView extends AbstractView {
     @Override
     protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request,
                                            HttpServletResponse response) throws Exception {
+        if (this.bandwidthManager == null) {
+            this.renderFile(request, response);
+            return;
+        }
+
+        BandwidthManager.ThrottledResponse throttled = this.bandwidthManager.wrap(request, response,
+                this.getFile().getName());
+
+        try {
+            this.renderFile(request, throttled);
+        } finally {
+            throttled.finish();
+        }
+    }
+
+    /**
+     * 파일 출력 (대역폭 제한시 제한된 Response)
+     *
+     * @param request
+     * @param response
+     * @throws Exception
+     */
+    protected void renderFile(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        File file = this.getFile();
+        if (!file.isFile())
+            throw new FileNotFoundException(file.getPath());
+
+        // 압축 형식 협상 (미리 압축된 파일 우선, 없으면 전송시 gzip 압축)
+        File source = file;
+        String encoding = null;
+        boolean compressing = false;
+
+        if (this.compression) {
+            response.addHeader("Vary", "Accept-Encoding");
+
+            for (String coding : PRECOMPRESSED_EXTENSIONS.keySet()) {
+                File sibling = new File(file.getPath() + PRECOMPRESSED_EXTENSIONS.get(coding));
+                if (isAccepted(request, coding) && sibling.isFile() && sibling.lastModified() >= file.lastModified()) {
+                    source = sibling;
+                    encoding = coding;
+                    break;
+                }
+            }
+
+            // Range 요청(이어받기)은 압축하지 않고 요청한 범위를 전송
+            if (encoding == null && file.length() >= this.compressionThreshold
+                    && file.length() <= this.maxCompressionSize && request.getHeader("Range") == null
+                    && isAccepted(request, GZIP) && this.isCompressible(file)) {
+                encoding = GZIP;
+                compressing = true;
+            }
+        }
+
+        String etag = null;
+        if (this.conditional) {
+            etag = this.getETag(source);
+            if (compressing)
+                etag = etag.substring(0, etag.length() - 1) + "-" + GZIP + "\"";
+
+            response.setHeader("ETag", etag);
+            response.setDateHeader("Last-Modified", file.lastModified());
+
+            if (this.isNotModified(request, file, etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
         this.prepareAttachmentFilename(request, response, this.getFilename());
 
         this.setResponseContentType(request, response);
 
-        FileInputStream inputStream = new FileInputStream(this.getFile());
-        ServletOutputStream outputStream = response.getOutputStream();
+        if (encoding != null)
+            response.setHeader("Content-Encoding", encoding);
+
+        // 전송시 압축하는 경우 크기를 알 수 없으므로 Range 지원안함
+        if (compressing) {
+            this.transferCompressed(response, file);
+            return;
+        }
+
+        long length = source.length();
+
+        if (!this.acceptRanges) {
+            setContentLength(response, length);
+            this.transfer(request, response, source, 0, length);
+            return;
+        }
+
+        response.setHeader("Accept-Ranges", BYTES_UNIT);
+
+        List<Range> ranges = this.getRanges(request, file, etag, length);
+        if (ranges == null) {
+            setContentLength(response, length);
+            this.transfer(request, response, source, 0, length);
+        } else if (ranges.isEmpty()) {
+            response.setHeader("Content-Range", BYTES_UNIT + " */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        } else if (ranges.size() == 1) {
+            Range range = ranges.get(0);
+
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", range.toContentRange(length));
+            setContentLength(response, range.length());
+            this.transfer(request, response, source, range.start, range.length());
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            this.transferMultipart(response, source, ranges, length);
+        }
+    }
+
+    // ========================================
+    // 압축
+    // ========================================
+
+    /**
+     * Accept-Encoding 허용여부 (q=0 은 거부)
+     * 명시된 coding 의 q 값을 우선하며, 명시되지 않은 경우에만 "*" 의 q 값 사용
+     *
+     * @param request
+     * @param coding  gzip, br
+     * @return
+     */
+    protected static boolean isAccepted(HttpServletRequest request, String coding) {
+        String header = request.getHeader("Accept-Encoding");
+        if (header == null)
+            return false;
+
+        double wildcard = -1;
+
+        for (String token : header.split(",")) {
+            String[] params = token.trim().split(";");
+            String name = params[0].trim();
+
+            if (name.equalsIgnoreCase(coding))
+                return getQuality(params) > 0;
+            if ("*".equals(name))
+                wildcard = getQuality(params);
+        }
+
+        return wildcard > 0;
+    }
+
+    /**
+     * q 값 (없으면 1, 형식 오류는 0)
+     */
+    private static double getQuality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    /**
+     * 전송시 압축 대상여부 (이미 압축된 형식 제외)
+     *
+     * @param file
+     * @return
+     */
+    protected boolean isCompressible(File file) {
+        String extension = FilenameUtils.getExtension(this.getFilename()).toLowerCase();
+        if (COMPRESSED_EXTENSIONS.contains(extension) || COMPRESSED_EXTENSIONS.contains(
+                FilenameUtils.getExtension(file.getName()).toLowerCase()))
+            return false;
+
+        String contentType = this.getContentType();
+        if (contentType == null)
+            return true;
+
+        contentType = contentType.toLowerCase();
+        if (contentType.startsWith("image/svg"))
+            return true;
+
+        for (String type : COMPRESSED_CONTENT_TYPES) {
+            if (contentType.startsWith(type))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * gzip 압축 전송 (풀의 Deflater 사용)
+     *
+     * @param response
+     * @param file
+     * @throws IOException
+     */
+    protected void transferCompressed(HttpServletResponse response, File file) throws IOException {
+        FileInputStream inputStream = null;
+        OutputStream outputStream = null;
+
+        try {
+            inputStream = new FileInputStream(file);
+            outputStream = this.deflaterPool.gzip(new CloseShieldOutputStream(response.getOutputStream()));
+
+            transferTo(inputStream.getChannel(), 0, file.length(), outputStream);
+
+            outputStream.close();
+            response.getOutputStream().flush();
+        } finally {
+            IOUtils.closeQuietly(outputStream);
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    // ========================================
+    // 조건부 요청
+    // ========================================
+
+    /**
+     * ETag 조회 (캐시 사용시 내용 해시 강한 ETag, 아니면 크기, 수정시각 기반 약한 ETag)
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    protected String getETag(File file) throws IOException {
+        if (this.etagCache != null)
+            return this.etagCache.getETag(file);
+
+        return "W/\"" + file.length() + "-" + file.lastModified() + "\"";
+    }
+
+    /**
+     * 변경여부 확인 (If-None-Match 우선, 없으면 If-Modified-Since)
+     *
+     * @param request
+     * @param file
+     * @param etag
+     * @return 304 응답 여부
+     */
+    protected boolean isNotModified(HttpServletRequest request, File file, String etag) {
+        if (!("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())))
+            return false;
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                candidate = candidate.trim();
+                if ("*".equals(candidate) || weakETag(candidate).equals(weakETag(etag)))
+                    return true;
+            }
+
+            return false;
+        }
+
+        try {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && file.lastModified() / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String weakETag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    // ========================================
+    // Range
+    // ========================================
+
+    /**
+     * 요청 Range 조회
+     *
+     * @param request
+     * @param file
+     * @param etag   ETag (null: 조건부 요청 사용안함)
+     * @param length 파일 크기
+     * @return null: 전체 전송, 빈 목록: 범위 오류(416), 그 외 전송할 범위
+     */
+    protected List<Range> getRanges(HttpServletRequest request, File file, String etag, long length) {
+        String header = request.getHeader("Range");
+        if (header == null || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())))
+            return null;
+
+        // 파일이 변경된 경우 전체 전송
+        if (!this.isRangeValid(request, file, etag))
+            return null;
+
+        header = header.trim();
+        if (!header.startsWith(BYTES_UNIT + "="))
+            return null;
+
+        String[] specs = header.substring(BYTES_UNIT.length() + 1).split(",");
+        if (specs.length > this.maxRanges)
+            return null;
+
+        List<Range> ranges = new ArrayList<>(specs.length);
+
+        for (String spec : specs) {
+            Range range = Range.parse(spec.trim(), length);
+            if (range == Range.INVALID)
+                return null;
 
-        FileCopyUtils.copy(inputStream, outputStream);
+            if (range != null)
+                ranges.add(range);
+        }
 
-        outputStream.flush();
+        return ranges;
+    }
+
+    /**
+     * If-Range 확인 (ETag 또는 Last-Modified 와 같을 때만 Range 전송)
+     *
+     * @param request
+     * @param file
+     * @param etag    ETag (null: 조건부 요청 사용안함)
+     * @return
+     */
+    protected boolean isRangeValid(HttpServletRequest request, File file, String etag) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null)
+            return true;
+
+        // ETag 형식 (강한 비교, 약한 ETag 는 일치하지 않음)
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+            return etag != null && !etag.startsWith("W/") && etag.equals(ifRange.trim());
+
+        try {
+            long date = request.getDateHeader("If-Range");
+            return date >= 0 && file.lastModified() / 1000 == date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 복수 Range 전송 (multipart/byteranges, 하나의 FileChannel 에서 위치지정 읽기)
+     *
+     * @param response
+     * @param file
+     * @param ranges
+     * @param length   파일 크기
+     * @throws IOException
+     */
+    protected void transferMultipart(HttpServletResponse response, File file, List<Range> ranges, long length)
+            throws IOException {
+        String contentType = this.getContentType();
+        List<byte[]> headers = new ArrayList<>(ranges.size());
+        byte[] end = ("\r\n--" + MULTIPART_BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+        long contentLength = end.length;
+        for (Range range : ranges) {
+            byte[] header = ("\r\n--" + MULTIPART_BOUNDARY + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: " + range.toContentRange(length) + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+            headers.add(header);
+            contentLength += header.length + range.length();
+        }
+
+        response.setContentType("multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
+        setContentLength(response, contentLength);
+
+        FileInputStream inputStream = null;
+
+        try {
+            inputStream = new FileInputStream(file);
+            FileChannel channel = inputStream.getChannel();
+            ServletOutputStream outputStream = response.getOutputStream();
+
+            for (int i = 0; i < ranges.size(); i++) {
+                outputStream.write(headers.get(i));
+                transferTo(channel, ranges.get(i).start, ranges.get(i).length(), outputStream);
+            }
+
+            outputStream.write(end);
+            outputStream.flush();
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * 파일 전송
+     * 컨테이너가 sendfile 을 지원하면 컨테이너에 위임(커널에서 바로 전송)하고,
+     * 아니면 FileChannel.transferTo 로 응답 Stream 에 출력 (4KB 버퍼 복사 대신)
+     *
+     * @param request
+     * @param response
+     * @param file     파일
+     * @param position 시작 위치
+     * @param count    전송 크기
+     * @throws IOException
+     */
+    protected void transfer(HttpServletRequest request, HttpServletResponse response, File file, long position,
+                            long count) throws IOException {
+        // 대역폭 제한시 컨테이너가 직접 전송하는 sendfile 은 사용하지 않음
+        if (!(response instanceof BandwidthManager.ThrottledResponse) && this.isSendfile(request, count)) {
+            log.debug("Sendfile: {} ({}-{})", file, position, position + count);
+
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, position);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, position + count);
+            return;
+        }
+
+        if (this.isAsync(request)) {
+            this.transferAsync(request, response, file, position, count);
+            return;
+        }
+
+        ByteBuffer mapped = this.getMappedFile(file);
+        if (mapped != null) {
+            ServletOutputStream outputStream = response.getOutputStream();
+
+            mapped.limit((int) (position + count)).position((int) position);
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            while (mapped.hasRemaining())
+                target.write(mapped);
+
+            outputStream.flush();
+            return;
+        }
+
+        FileInputStream inputStream = null;
+
+        try {
+            inputStream = new FileInputStream(file);
+            ServletOutputStream outputStream = response.getOutputStream();
+
+            transferTo(inputStream.getChannel(), position, count, outputStream);
+
+            outputStream.flush();
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * 비동기 전송 사용여부
+     */
+    protected boolean isAsync(HttpServletRequest request) {
+        return this.async && request.isAsyncSupported() && !request.isAsyncStarted();
+    }
+
+    /**
+     * 비동기 전송 (헤더 출력 후 컨테이너 Thread 반환)
+     *
+     * @param request
+     * @param response
+     * @param file
+     * @param position 시작 위치
+     * @param count    전송 크기
+     * @throws IOException
+     */
+    protected void transferAsync(HttpServletRequest request, HttpServletResponse response, File file, long position,
+                                 long count) throws IOException {
+        log.debug("Async download: {} ({}-{})", file, position, position + count);
+
+        // 대역폭 제한은 비동기 전송에서 청크마다 예약 (전송 완료도 비동기 전송에서 처리)
+        BandwidthManager.ThrottledResponse throttled = null;
+        BandwidthManager.Transfer transfer = null;
+        ServletOutputStream outputStream;
+        if (response instanceof BandwidthManager.ThrottledResponse) {
+            throttled = (BandwidthManager.ThrottledResponse) response;
+            transfer = throttled.getTransfer();
+            outputStream = throttled.getResponse().getOutputStream();
+        } else {
+            outputStream = response.getOutputStream();
+        }
+
+        // 매핑 조회와 파일 열기는 비동기 시작 전에 (실패시 AsyncContext 가 남지 않고 대역폭 예약은 동기 처리에서 반환)
+        Executor executor = this.asyncExecutor != null ? this.asyncExecutor : getDefaultAsyncExecutor();
+        AsyncFileTransfer asyncTransfer = new AsyncFileTransfer(outputStream, executor, file, this.getMappedFile(file),
+                transfer, position, count, this.asyncChunkSize);
+
+        AsyncContext context;
+        try {
+            response.flushBuffer();
+
+            context = request.startAsync(request, response);
+            if (this.asyncTimeout >= 0)
+                context.setTimeout(this.asyncTimeout);
+        } catch (IOException | RuntimeException e) {
+            asyncTransfer.abort();
+            throw e;
+        }
+
+        // 이후 전송 완료(실패 포함)와 대역폭 예약 반환은 비동기 전송에서 처리
+        asyncTransfer.start(context);
+
+        if (throttled != null)
+            throttled.detach();
+    }
+
+    /**
+     * 캐시된 파일 매핑 조회
+     *
+     * @param file
+     * @return null: 캐시 사용안함 또는 캐시 대상 아님
+     * @throws IOException
+     */
+    protected ByteBuffer getMappedFile(File file) throws IOException {
+        return this.fileCache != null ? this.fileCache.get(file) : null;
+    }
+
+    private static synchronized Executor getDefaultAsyncExecutor() {
+        if (defaultAsyncExecutor == null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("download-io-");
+            threadFactory.setDaemon(true);
+            defaultAsyncExecutor = Executors.newFixedThreadPool(DEFAULT_ASYNC_THREADS, threadFactory);
+        }
+
+        return defaultAsyncExecutor;
+    }
+
+    /**
+     * sendfile 사용여부 (요청당 한 번만 사용 가능)
+     */
+    protected boolean isSendfile(HttpServletRequest request, long count) {
+        return this.useSendfile && count >= this.sendfileThreshold
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))
+                && request.getAttribute(SENDFILE_FILENAME_ATTRIBUTE) == null;
+    }
+
+    /**
+     * FileChannel 의 일부를 출력 Stream 으로 전송
+     *
+     * @param channel  FileChannel
+     * @param position 시작 위치
+     * @param count    전송 크기
+     * @param out      출력 Stream
+     * @throws IOException
+     */
+    protected static void transferTo(FileChannel channel, long position, long count, OutputStream out)
+            throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long end = position + count;
+
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0)
+                throw new EOFException("Unexpected end of file at " + position);
+
+            position += transferred;
+        }
+    }
+
+    /**
+     * Content-Length 지정 (2GB 이상도 지원)
+     */
+    protected static void setContentLength(HttpServletResponse response, long length) {
+        if (length <= Integer.MAX_VALUE)
+            response.setContentLength((int) length);
+        else
+            response.setHeader("Content-Length", String.valueOf(length));
     }
 
     public File getFile() {
@@ -107,4 +782,201 @@ public class DownloadView extends AbstractView {
         this.filenameEncoder = filenameEncoder;
     }
 
-}
\ No newline at end of file
+    public boolean isUseSendfile() {
+        return useSendfile;
+    }
+
+    public void setUseSendfile(boolean useSendfile) {
+        this.useSendfile = useSendfile;
+    }
+
+    public boolean isAcceptRanges() {
+        return acceptRanges;
+    }
+
+    public void setAcceptRanges(boolean acceptRanges) {
+        this.acceptRanges = acceptRanges;
+    }
+
+    public int getMaxRanges() {
+        return maxRanges;
+    }
+
+    public void setMaxRanges(int maxRanges) {
+        this.maxRanges = maxRanges;
+    }
+
+    public boolean isConditional() {
+        return conditional;
+    }
+
+    public void setConditional(boolean conditional) {
+        this.conditional = conditional;
+    }
+
+    public FileETagCache getEtagCache() {
+        return etagCache;
+    }
+
+    public void setEtagCache(FileETagCache etagCache) {
+        this.etagCache = etagCache;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public long getMaxCompressionSize() {
+        return maxCompressionSize;
+    }
+
+    public void setMaxCompressionSize(long maxCompressionSize) {
+        this.maxCompressionSize = maxCompressionSize;
+    }
+
+    public long getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(long compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public DeflaterPool getDeflaterPool() {
+        return deflaterPool;
+    }
+
+    public void setDeflaterPool(DeflaterPool deflaterPool) {
+        this.deflaterPool = deflaterPool;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    public void setAsyncTimeout(long asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    public int getAsyncChunkSize() {
+        return asyncChunkSize;
+    }
+
+    public void setAsyncChunkSize(int asyncChunkSize) {
+        this.asyncChunkSize = asyncChunkSize;
+    }
+
+    public MappedFileCache getFileCache() {
+        return fileCache;
+    }
+
+    public void setFileCache(MappedFileCache fileCache) {
+        this.fileCache = fileCache;
+    }
+
+    public BandwidthManager getBandwidthManager() {
+        return bandwidthManager;
+    }
+
+    /**
+     * 대역폭 제한 (sendfile 은 사용하지 않음)
+     */
+    public void setBandwidthManager(BandwidthManager bandwidthManager) {
+        this.bandwidthManager = bandwidthManager;
+    }
+
+    public long getSendfileThreshold() {
+        return sendfileThreshold;
+    }
+
+    public void setSendfileThreshold(long sendfileThreshold) {
+        this.sendfileThreshold = sendfileThreshold;
+    }
+
+    /**
+     * 바이트 범위 (start, end 포함)
+     */
+    protected static class Range {
+
+        /** 형식 오류 */
+        static final Range INVALID = new Range(-1, -1);
+
+        public final long start;
+
+        public final long end;
+
+        public Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * 범위 해석 (first-last, first-, -suffix)
+         *
+         * @param spec   범위
+         * @param length 파일 크기
+         * @return 범위, null: 파일 범위 밖, INVALID: 형식 오류
+         */
+        static Range parse(String spec, long length) {
+            int dash = spec.indexOf('-');
+            if (dash < 0)
+                return INVALID;
+
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+
+                if (first.isEmpty()) {
+                    // 마지막 n 바이트
+                    long suffix = Long.parseLong(last);
+                    if (suffix <= 0 || length == 0)
+                        return null;
+
+                    return new Range(Math.max(0, length - suffix), length - 1);
+                }
+
+                long start = Long.parseLong(first);
+                long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+
+                if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start))
+                    return INVALID;
+                if (start >= length)
+                    return null;
+
+                return new Range(start, end);
+            } catch (NumberFormatException e) {
+                return INVALID;
+            }
+        }
+
+        public long length() {
+            return end - start + 1;
+        }
+
+        public String toContentRange(long length) {
+            return BYTES_UNIT + " " + start + "-" + end + "/" + length;
+        }
+
+    }
+
+}
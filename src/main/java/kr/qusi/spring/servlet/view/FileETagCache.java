@@ -0,0 +1,146 @@
+package kr.qusi.spring.servlet.view;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * 파일 내용 해시(MD5) ETag 캐시
+ * 경로 + 크기 + 수정시각 별로 한 번만 계산하며, 파일이 변경되면 새 항목으로 다시 계산함
+ * 최대 항목 수를 초과하면 가장 오래 사용되지 않은 항목부터 제거 (LRU)
+ */
+@Slf4j
+public class FileETagCache {
+
+    /** 최대 항목 수 기본값 */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * ETag 조회 (강한 ETag, 따옴표 포함)
+     *
+     * @param file 파일
+     * @return ETag
+     * @throws IOException
+     */
+    public String getETag(File file) throws IOException {
+        String key = file.getCanonicalPath() + ':' + file.length() + ':' + file.lastModified();
+
+        synchronized (entries) {
+            String etag = entries.get(key);
+            if (etag != null) {
+                hitCount.incrementAndGet();
+                return etag;
+            }
+        }
+
+        // 해시 계산은 잠금 밖에서 (동시에 같은 파일을 계산할 수 있으나 결과는 같음)
+        missCount.incrementAndGet();
+        long start = System.currentTimeMillis();
+        String etag = '"' + hash(file) + '"';
+        log.debug("ETag: {} {} ({}ms)", file, etag, System.currentTimeMillis() - start);
+
+        synchronized (entries) {
+            entries.put(key, etag);
+        }
+
+        return etag;
+    }
+
+    /**
+     * 파일 내용 해시
+     *
+     * @param file 파일
+     * @return 16진수 해시
+     * @throws IOException
+     */
+    protected String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        FileInputStream is = null;
+
+        try {
+            is = new FileInputStream(file);
+            FileChannel channel = is.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            IOUtils.closeQuietly(is);
+        }
+
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+
+        return new String(chars);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+}
@@ -0,0 +1,233 @@
+package kr.qusi.spring.servlet.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * 자주 받는 파일의 메모리 매핑(mmap) 캐시
+ * 매핑된 파일은 힙 밖(페이지 캐시)에 있으므로 요청마다 파일을 열고 읽지 않으며 힙 배열도 만들지 않음
+ * 수정시각, 크기가 바뀌면 다시 매핑하고, 전체 크기를 넘으면 가장 오래 사용되지 않은 파일부터 제거 (LRU)
+ * 한 번만 받는 파일로 캐시가 밀려나지 않도록 admissionHits 번 이상 요청된 파일만 매핑함
+ * <p>
+ * 제거된 매핑은 GC 시 해제되며, 파일은 덮어쓰지 말고 새 파일로 교체(rename)해야 함
+ * (매핑중인 파일이 잘리면 읽을 때 오류 발생)
+ */
+@Slf4j
+public class MappedFileCache {
+
+    /** 전체 크기 기본값 (256MB) */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    /** 파일 최대 크기 기본값 (64MB, 초과시 캐시하지 않음) */
+    public static final long DEFAULT_MAX_FILE_SIZE = 64L * 1024 * 1024;
+
+    /** 매핑 전 요청 수 기본값 */
+    public static final int DEFAULT_ADMISSION_HITS = 2;
+
+    /** 요청 수를 유지할 후보 파일 수 */
+    private static final int MAX_CANDIDATES = 1024;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<String, Integer> candidates = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_CANDIDATES;
+        }
+    };
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private long maxBytes = DEFAULT_MAX_BYTES;
+
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+
+    private int admissionHits = DEFAULT_ADMISSION_HITS;
+
+    /** 현재 매핑된 전체 크기 */
+    private long totalBytes;
+
+    /**
+     * 매핑된 파일 조회
+     *
+     * @param file 파일
+     * @return 읽기전용 Buffer (요청마다 독립된 위치), null: 캐시 대상 아님
+     * @throws IOException
+     */
+    public ByteBuffer get(File file) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        if (length == 0 || length > Integer.MAX_VALUE)
+            return null;
+
+        String key = file.getCanonicalPath();
+
+        synchronized (this) {
+            if (length > maxFileSize || length > maxBytes)
+                return null;
+
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.length == length && entry.lastModified == lastModified) {
+                    hitCount.incrementAndGet();
+                    return entry.buffer.duplicate();
+                }
+
+                // 변경된 파일
+                remove(key);
+            }
+
+            missCount.incrementAndGet();
+
+            Integer hits = candidates.get(key);
+            hits = hits == null ? 1 : hits + 1;
+            if (hits < admissionHits) {
+                candidates.put(key, hits);
+                return null;
+            }
+
+            candidates.remove(key);
+        }
+
+        ByteBuffer buffer = map(file, length);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.length == length && entry.lastModified == lastModified)
+                return entry.buffer.duplicate();
+
+            if (entry != null)
+                remove(key);
+
+            entries.put(key, new Entry(buffer, length, lastModified));
+            totalBytes += length;
+            evict();
+        }
+
+        log.debug("Mapped: {} ({} bytes)", file, length);
+        return buffer.duplicate();
+    }
+
+    private ByteBuffer map(File file, long length) throws IOException {
+        RandomAccessFile raf = null;
+
+        try {
+            raf = new RandomAccessFile(file, "r");
+            // 매핑은 채널을 닫아도 유지됨
+            return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length).asReadOnlyBuffer();
+        } finally {
+            IOUtils.closeQuietly(raf);
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            totalBytes -= eldest.getValue().length;
+            it.remove();
+            evictionCount.incrementAndGet();
+            log.debug("Unmapped: {}", eldest.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null)
+            totalBytes -= entry.length;
+    }
+
+    /**
+     * 파일 제거
+     */
+    public synchronized void invalidate(File file) throws IOException {
+        remove(file.getCanonicalPath());
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        candidates.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public synchronized void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public synchronized int getAdmissionHits() {
+        return admissionHits;
+    }
+
+    /**
+     * 매핑 전 요청 수 (1: 첫 요청부터 매핑)
+     */
+    public synchronized void setAdmissionHits(int admissionHits) {
+        this.admissionHits = admissionHits;
+    }
+
+    private static class Entry {
+
+        final ByteBuffer buffer;
+
+        final long length;
+
+        final long lastModified;
+
+        Entry(ByteBuffer buffer, long length, long lastModified) {
+            this.buffer = buffer;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package kr.qusi.spring.servlet.view;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잠금없는 토큰 버킷 (GCRA, 다음 전송 가능 시각 하나만 CAS 로 갱신)
+ * 요청한 바이트를 먼저 예약하고 기다려야 할 시간을 반환하므로, 호출자는 그 시간만큼 쉬거나 다음 전송을 예약함
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** 초당 바이트 */
+    private final long rate;
+
+    /** 순간 허용량 (바이트 단위를 시간으로 환산) */
+    private final long burstNanos;
+
+    /** 예약된 전송이 모두 끝나는 이론상 시각 */
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param rate  초당 바이트 (0 이하: 제한없음)
+     * @param burst 순간 허용량 (바이트)
+     */
+    public TokenBucket(long rate, long burst) {
+        this.rate = rate;
+        this.burstNanos = rate > 0 ? nanos(Math.max(burst, 1), rate) : 0;
+    }
+
+    /**
+     * 전송 예약
+     *
+     * @param bytes 바이트
+     * @return 전송 전 기다려야 할 시간 (ns, 0: 바로 전송)
+     */
+    public long reserve(long bytes) {
+        if (rate <= 0)
+            return 0;
+
+        long cost = nanos(bytes, rate);
+
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + cost;
+
+            if (theoreticalArrival.compareAndSet(tat, next))
+                return Math.max(0, next - now - burstNanos);
+        }
+    }
+
+    /**
+     * 순간 허용량을 모두 회복했는지 확인 (새 버킷과 같은 상태)
+     */
+    public boolean isFull() {
+        return rate <= 0 || theoreticalArrival.get() - System.nanoTime() <= 0;
+    }
+
+    /**
+     * 순간 허용량 회복 시간 (ns)
+     */
+    public long getBurstNanos() {
+        return burstNanos;
+    }
+
+    private static long nanos(long bytes, long rate) {
+        // 곱셈 overflow 방지 (rate 가 작고 bytes 가 큰 경우)
+        return bytes <= Long.MAX_VALUE / NANOS_PER_SECOND ?
+                bytes * NANOS_PER_SECOND / rate : (bytes / rate) * NANOS_PER_SECOND;
+    }
+
+    public long getRate() {
+        return rate;
+    }
+
+}
@@ -0,0 +1,558 @@
+package kr.qusi.spring.servlet.view;
+
+import kr.qusi.spring.servlet.view.encoding.DefaultFilenameEncoder;
+import kr.qusi.spring.servlet.view.encoding.FilenameEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.view.AbstractView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 여러 파일 zip 다운로드 View
+ * 임시 파일 없이 응답으로 바로 zip 을 출력하며, 현재 파일을 쓰는 동안 다음 파일을 미리 읽음(read-ahead)
+ * 이미 압축된 형식(.zip, .xlsx, .pdf, 이미지 등)은 다시 압축하지 않고 STORED 로 저장
+ *
+ * <pre>
+ * ZipDownloadView view = new ZipDownloadView("attachments.zip");
+ * view.addFile(new File("/data/report.pdf"));
+ * view.addEntry("2015/01.xlsx", new ClassPathResource("monthly/01.xlsx"));
+ * return new ModelAndView(view);
+ * </pre>
+ *
+ * @see DownloadView
+ */
+@Slf4j
+public class ZipDownloadView extends AbstractView {
+
+    /** 미리 읽을 크기 기본값 (이하인 파일은 메모리에 모두 읽음) */
+    public static final int DEFAULT_READ_AHEAD_SIZE = 1024 * 1024;
+
+    /** 공유 read-ahead Executor Thread 수 */
+    private static final int DEFAULT_READ_AHEAD_THREADS = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** 공유 read-ahead Executor (처음 사용시 생성, 대기열 없이 모든 Thread 가 사용중이면 요청 Thread 에서 읽음) */
+    private static Executor defaultReadAheadExecutor;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** 다운로드 파일명 */
+    private String filename;
+
+    private FilenameEncoder filenameEncoder = new DefaultFilenameEncoder();
+
+    /** 이미 압축된 형식은 STORED 로 저장 */
+    private boolean storeCompressed = true;
+
+    /** 압축 수준 (0~9, -1: 기본값) */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    private int readAheadSize = DEFAULT_READ_AHEAD_SIZE;
+
+    /**
+     * read-ahead Executor (미지정시 공유 Executor)
+     * 거부(RejectedExecutionException)시 요청 Thread 에서 읽으므로 대기열이 제한된 Executor 를 지정
+     */
+    private Executor readAheadExecutor;
+
+    /** 항목명 문자셋 (오래된 압축 프로그램 호환이 필요하면 MS949) */
+    private Charset entryCharset = StandardCharsets.UTF_8;
+
+    public ZipDownloadView(String filename) {
+        this.filename = filename;
+        this.setContentType("application/zip");
+    }
+
+    public ZipDownloadView(String filename, List<File> files) {
+        this(filename);
+        this.setFiles(files);
+    }
+
+    /**
+     * 파일 추가 (항목명: 파일명)
+     */
+    public void addFile(File file) {
+        this.addEntry(file.getName(), new FileSystemResource(file));
+    }
+
+    public void addFile(String name, File file) {
+        this.addEntry(name, new FileSystemResource(file));
+    }
+
+    /**
+     * Resource 추가 (항목명: Resource 파일명)
+     */
+    public void addResource(Resource resource) {
+        this.addEntry(resource.getFilename(), resource);
+    }
+
+    /**
+     * 항목 추가
+     *
+     * @param name     항목명 (경로 포함 가능, 중복시 "이름 (2).확장자")
+     * @param resource 내용
+     */
+    public void addEntry(String name, Resource resource) {
+        if (name == null || name.isEmpty())
+            throw new IllegalArgumentException("Entry name is empty: " + resource);
+
+        this.entries.add(new Entry(name, resource));
+    }
+
+    public void setFiles(List<File> files) {
+        for (File file : files)
+            this.addFile(file);
+    }
+
+    public void setResources(List<Resource> resources) {
+        for (Resource resource : resources)
+            this.addResource(resource);
+    }
+
+    @Override
+    protected boolean generatesDownloadContent() {
+        return true;
+    }
+
+    /**
+     * 다운로드 헤더 준비
+     *
+     * @param request
+     * @param response
+     * @param filename
+     * @throws UnsupportedEncodingException
+     */
+    protected void prepareAttachmentFilename(HttpServletRequest request, HttpServletResponse response, String filename)
+            throws UnsupportedEncodingException {
+        String encodeFilename = this.filenameEncoder.encode(request, filename);
+        response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", encodeFilename));
+    }
+
+    @Override
+    protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request,
+                                           HttpServletResponse response) throws Exception {
+        this.prepareAttachmentFilename(request, response, this.filename);
+        this.setResponseContentType(request, response);
+
+        Set<String> names = new HashSet<>();
+        Iterator<Entry> it = this.entries.iterator();
+        Future<Prepared> next = it.hasNext() ? this.readAhead(it.next()) : null;
+        ZipOutputStream os = null;
+
+        try {
+            os = this.createZipOutputStream(response.getOutputStream());
+
+            while (next != null) {
+                Prepared current = getPrepared(next);
+                next = it.hasNext() ? this.readAhead(it.next()) : null;
+
+                this.writeEntry(os, current, uniqueName(names, current.entry.name));
+            }
+
+            os.finish();
+            os.flush();
+        } finally {
+            discard(next);
+            IOUtils.closeQuietly(os);
+        }
+    }
+
+    /**
+     * 출력 zip Stream 생성
+     *
+     * @param out 출력 Stream
+     * @return
+     */
+    protected ZipOutputStream createZipOutputStream(OutputStream out) {
+        ZipOutputStream os = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), this.entryCharset);
+        os.setLevel(this.compressionLevel);
+        return os;
+    }
+
+    /**
+     * 이미 압축된 형식인지 확인 (다시 압축해도 크기가 줄지 않으므로 STORED 로 저장)
+     *
+     * @param name 항목명
+     * @return
+     */
+    protected boolean isCompressed(String name) {
+        return this.storeCompressed
+                && DownloadView.COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(name).toLowerCase());
+    }
+
+    /**
+     * 다음 항목 미리 읽기 등록 (Executor 가 거부하면 현재 Thread 에서 읽음)
+     */
+    private Future<Prepared> readAhead(final Entry entry) {
+        FutureTask<Prepared> task = new FutureTask<Prepared>(new Callable<Prepared>() {
+            @Override
+            public Prepared call() throws Exception {
+                return prepare(entry);
+            }
+        }) {
+            @Override
+            protected void set(Prepared prepared) {
+                super.set(prepared);
+
+                // 준비 중에 취소된 경우 결과를 가져갈 수 없으므로 여기서 Stream 을 닫음
+                if (isCancelled())
+                    IOUtils.closeQuietly(prepared.rest);
+            }
+        };
+
+        try {
+            Executor executor = this.readAheadExecutor != null ? this.readAheadExecutor : getDefaultReadAheadExecutor();
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+
+        return task;
+    }
+
+    /**
+     * 항목 준비
+     * 앞부분을 readAheadSize 만큼 읽어 두고, 남은 내용은 쓸 때 이어서 읽음
+     * 큰 파일을 STORED 로 저장하는 경우 CRC 가 먼저 필요하므로 끝까지 읽어 CRC 를 계산하고 쓸 때 다시 읽음
+     *
+     * @param entry 항목
+     * @return
+     * @throws IOException
+     */
+    protected Prepared prepare(Entry entry) throws IOException {
+        // 다시 열 수 없는 Stream 은 CRC 를 미리 계산할 수 없으므로 크기와 무관하게 압축
+        boolean stored = this.isCompressed(entry.name);
+        Prepared prepared = new Prepared(entry, stored);
+        InputStream in = entry.resource.getInputStream();
+
+        try {
+            if (!copy(in, prepared.head, this.readAheadSize)) {
+                prepared.crc = prepared.head.crc.getValue();
+                prepared.size = prepared.head.size();
+                return prepared;
+            }
+
+            if (!stored || entry.resource.isOpen()) {
+                prepared.stored = false;
+                prepared.rest = in;
+                in = null;
+                return prepared;
+            }
+
+            CRC32 crc = prepared.head.crc;
+            long size = prepared.head.size();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int n; (n = in.read(buffer)) != -1; size += n) {
+                crc.update(buffer, 0, n);
+                checkInterrupted();
+            }
+
+            prepared.crc = crc.getValue();
+            prepared.size = size;
+            prepared.reopen = true;
+            prepared.head.reset();
+            return prepared;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * 항목 쓰기
+     *
+     * @param os       zip Stream
+     * @param prepared 준비된 항목
+     * @param name     항목명
+     * @throws IOException
+     */
+    protected void writeEntry(ZipOutputStream os, Prepared prepared, String name) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (prepared.entry.lastModified > 0)
+            entry.setTime(prepared.entry.lastModified);
+
+        if (prepared.stored) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(prepared.size);
+            entry.setCompressedSize(prepared.size);
+            entry.setCrc(prepared.crc);
+        }
+
+        InputStream in = prepared.reopen ? prepared.entry.resource.getInputStream() : prepared.rest;
+
+        try {
+            os.putNextEntry(entry);
+            prepared.head.writeTo(os);
+            if (in != null)
+                IOUtils.copyLarge(in, os, new byte[BUFFER_SIZE]);
+            os.closeEntry();
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+
+        log.debug("Zip entry: {} ({} bytes, {})", name, entry.getSize(), prepared.stored ? "stored" : "deflated");
+    }
+
+    /**
+     * 최대 limit 바이트 복사
+     *
+     * @return 남은 데이터 여부
+     */
+    private static boolean copy(InputStream in, OutputStream out, int limit) throws IOException {
+        byte[] buffer = new byte[Math.min(BUFFER_SIZE, Math.max(limit, 1))];
+        int remaining = limit;
+
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, Math.min(buffer.length, remaining));
+            if (n == -1)
+                return false;
+
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+
+        // 정확히 limit 크기인 경우 구분
+        int b = in.read();
+        if (b == -1)
+            return false;
+
+        out.write(b);
+        return true;
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedIOException("Read-ahead cancelled");
+    }
+
+    private static Prepared getPrepared(Future<Prepared> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * 쓰지 못한 미리 읽기 정리 (열려 있는 Stream 닫기)
+     */
+    private static void discard(Future<Prepared> future) {
+        if (future == null || future.cancel(true))
+            return;
+
+        try {
+            Prepared prepared = future.get();
+            IOUtils.closeQuietly(prepared.rest);
+        } catch (Exception e) {
+            // 무시
+        }
+    }
+
+    /**
+     * 중복되지 않는 항목명 ("이름 (2).확장자")
+     */
+    private static String uniqueName(Set<String> names, String name) {
+        String unique = name;
+        String extension = FilenameUtils.getExtension(name);
+        String base = extension.isEmpty() ? name : name.substring(0, name.length() - extension.length() - 1);
+
+        for (int i = 2; !names.add(unique.toLowerCase()); i++)
+            unique = base + " (" + i + ")" + (extension.isEmpty() ? "" : "." + extension);
+
+        return unique;
+    }
+
+    private static synchronized Executor getDefaultReadAheadExecutor() {
+        if (defaultReadAheadExecutor == null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("zip-read-ahead-");
+            threadFactory.setDaemon(true);
+            defaultReadAheadExecutor = new ThreadPoolExecutor(DEFAULT_READ_AHEAD_THREADS, DEFAULT_READ_AHEAD_THREADS,
+                    0L, TimeUnit.MILLISECONDS, new SynchronousQueue<Runnable>(), threadFactory);
+        }
+
+        return defaultReadAheadExecutor;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void setFilenameEncoder(FilenameEncoder filenameEncoder) {
+        this.filenameEncoder = filenameEncoder;
+    }
+
+    public boolean isStoreCompressed() {
+        return storeCompressed;
+    }
+
+    public void setStoreCompressed(boolean storeCompressed) {
+        this.storeCompressed = storeCompressed;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getReadAheadSize() {
+        return readAheadSize;
+    }
+
+    public void setReadAheadSize(int readAheadSize) {
+        this.readAheadSize = readAheadSize;
+    }
+
+    public Executor getReadAheadExecutor() {
+        return readAheadExecutor;
+    }
+
+    public void setReadAheadExecutor(Executor readAheadExecutor) {
+        this.readAheadExecutor = readAheadExecutor;
+    }
+
+    public Charset getEntryCharset() {
+        return entryCharset;
+    }
+
+    public void setEntryCharset(Charset entryCharset) {
+        this.entryCharset = entryCharset;
+    }
+
+    /**
+     * zip 항목 (항목명, 내용)
+     */
+    public static class Entry {
+
+        private final String name;
+
+        private final Resource resource;
+
+        /** 수정시각 (알 수 없으면 0) */
+        private final long lastModified;
+
+        public Entry(String name, Resource resource) {
+            this.name = name;
+            this.resource = resource;
+            this.lastModified = lastModified(resource);
+        }
+
+        private static long lastModified(Resource resource) {
+            try {
+                return resource.lastModified();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Resource getResource() {
+            return resource;
+        }
+
+    }
+
+    /**
+     * 미리 읽은 항목
+     */
+    protected static class Prepared {
+
+        final Entry entry;
+
+        /** 미리 읽은 앞부분 */
+        final HeadBuffer head = new HeadBuffer();
+
+        /** 이어서 읽을 Stream (null: 모두 읽음) */
+        InputStream rest;
+
+        /** 쓸 때 다시 열어 읽음 (CRC 만 미리 계산한 경우) */
+        boolean reopen;
+
+        boolean stored;
+
+        long crc;
+
+        long size;
+
+        Prepared(Entry entry, boolean stored) {
+            this.entry = entry;
+            this.stored = stored;
+        }
+
+    }
+
+    /**
+     * 미리 읽기 버퍼 (기록과 동시에 CRC 계산)
+     */
+    private static class HeadBuffer extends ByteArrayOutputStream {
+
+        private final CRC32 crc = new CRC32();
+
+        @Override
+        public synchronized void write(int b) {
+            super.write(b);
+            crc.update(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+    }
+
+}
@@ -0,0 +1,189 @@
+package kr.qusi.spring.servlet.view.csv;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import kr.qusi.spring.servlet.view.encoding.DefaultFilenameEncoder;
+import kr.qusi.spring.servlet.view.encoding.FilenameEncoder;
+import kr.qusi.spring.servlet.view.excel.CsvExportEngine;
+import kr.qusi.spring.servlet.view.excel.Excel2View;
+import kr.qusi.spring.servlet.view.excel.Excel2View.Bundle;
+import kr.qusi.spring.servlet.view.excel.ExportSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
+
+/**
+ * CSV/TSV 생성뷰
+ * {@link Bundle} 의 행 데이터(List, Map, Iterator 중 하나)를 템플릿 없이 응답으로 바로 출력함
+ * 컬럼은 {@link Bundle#addColumn(String, String)} 으로 지정하며, 미지정시 첫 행(Map)의 키를 사용
+ *
+ * @see CsvExportEngine
+ */
+@Slf4j
+public class CsvView extends AbstractUrlBasedView {
+
+    public static final String BUNDLE = Excel2View.BUNDLE;
+
+    /** CSV 확장자 */
+    public static final String EXTENSION_CSV = CsvExportEngine.EXTENSION_CSV;
+
+    /** CSV ContentType */
+    public static final String CONTENT_TYPE_CSV = CsvExportEngine.CONTENT_TYPE_CSV;
+
+    /** TSV 확장자 */
+    public static final String EXTENSION_TSV = CsvExportEngine.EXTENSION_TSV;
+
+    /** TSV ContentType */
+    public static final String CONTENT_TYPE_TSV = CsvExportEngine.CONTENT_TYPE_TSV;
+
+    /** 날짜 형식 기본값 */
+    public static final String DEFAULT_DATE_FORMAT = CsvExportEngine.DEFAULT_DATE_FORMAT;
+
+    /** 구분자 (기본값: ',', TSV 는 '\t') */
+    private char delimiter = ',';
+
+    private String charset = "UTF-8";
+
+    /** UTF-8 BOM 출력여부 (Excel 에서 UTF-8 로 인식, 다른 charset 은 출력안함) */
+    private boolean bom;
+
+    /** 제목행 출력여부 */
+    private boolean header = true;
+
+    private int bufferSize = CsvWriter.DEFAULT_BUFFER_SIZE;
+
+    private String dateFormat = DEFAULT_DATE_FORMAT;
+
+    /** 파일명 인코더 */
+    private FilenameEncoder filenameEncoder = new DefaultFilenameEncoder();
+
+    @Override
+    protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        if (model.get(BUNDLE) == null || !(model.get(BUNDLE) instanceof Bundle))
+            throw new IllegalArgumentException("Bundle not found");
+
+        Bundle bundle = (Bundle) model.get(BUNDLE);
+
+        try {
+            String filename = getBasename(bundle) + getExtension();
+            log.debug("File: {}", filename);
+
+            prepareAttachment(request, response, filename);
+            response.setContentType(getDelimiterContentType() + ";charset=" + getCharset());
+
+            ExportSource source = new ExportSource(null, bundle.getExtras()).setColumns(bundle.getColumns());
+            long rows = createEngine().export(source, response.getOutputStream());
+            log.debug("Rows: {}", rows);
+        } finally {
+            // 지연 조회 데이터 (Cursor 등) 정리
+            IOUtils.closeQuietly(bundle);
+        }
+
+        response.flushBuffer();
+    }
+
+    /**
+     * CSV 생성 엔진 (뷰 설정 적용)
+     */
+    protected CsvExportEngine createEngine() {
+        CsvExportEngine engine = new CsvExportEngine();
+        engine.setDelimiter(getDelimiter());
+        engine.setCharset(getCharset());
+        engine.setBom(isBom());
+        engine.setHeader(isHeader());
+        engine.setBufferSize(getBufferSize());
+        engine.setDateFormat(getDateFormat());
+
+        return engine;
+    }
+
+    protected String getBasename(Bundle bundle) {
+        return FilenameUtils.getBaseName(bundle.getFilename() != null ? bundle.getFilename() : getUrl());
+    }
+
+    /**
+     * 다운로드 헤더 준비
+     *
+     * @param request
+     * @param response
+     * @param filename
+     * @throws UnsupportedEncodingException
+     */
+    protected void prepareAttachment(HttpServletRequest request, HttpServletResponse response, String filename) throws UnsupportedEncodingException {
+        String encodeFilename = getFilenameEncoder().encode(request, filename);
+        response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", encodeFilename));
+    }
+
+    @Override
+    protected boolean generatesDownloadContent() {
+        return true;
+    }
+
+    protected String getExtension() {
+        return getDelimiter() == '\t' ? EXTENSION_TSV : EXTENSION_CSV;
+    }
+
+    protected String getDelimiterContentType() {
+        return getDelimiter() == '\t' ? CONTENT_TYPE_TSV : CONTENT_TYPE_CSV;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    public boolean isBom() {
+        return bom;
+    }
+
+    public void setBom(boolean bom) {
+        this.bom = bom;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    public void setDateFormat(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    public FilenameEncoder getFilenameEncoder() {
+        return filenameEncoder;
+    }
+
+    public void setFilenameEncoder(FilenameEncoder filenameEncoder) {
+        this.filenameEncoder = filenameEncoder;
+    }
+
+}
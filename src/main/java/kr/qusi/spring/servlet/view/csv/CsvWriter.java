@@ -0,0 +1,143 @@
+package kr.qusi.spring.servlet.view.csv;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV/TSV 작성기 (RFC 4180)
+ * 고정 크기의 버퍼를 재사용하며, 구분자/따옴표/개행이 포함된 값만 따옴표로 감쌈
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    /** 버퍼 크기 기본값 */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final char QUOTE = '"';
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Writer out;
+
+    private final char delimiter;
+
+    private final char[] buffer;
+
+    private int position;
+
+    /** 현재 행의 첫번째 값 여부 */
+    private boolean firstValue = true;
+
+    public CsvWriter(Writer out, char delimiter) {
+        this(out, delimiter, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(Writer out, char delimiter, int bufferSize) {
+        this.out = out;
+        this.delimiter = delimiter;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * 값 출력 (null 은 빈 값)
+     *
+     * @param value
+     * @throws IOException
+     */
+    public void write(String value) throws IOException {
+        if (!firstValue)
+            append(delimiter);
+        firstValue = false;
+
+        if (value == null || value.isEmpty())
+            return;
+
+        if (!needsQuote(value)) {
+            append(value);
+            return;
+        }
+
+        append(QUOTE);
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE)
+                append(QUOTE);
+            append(c);
+        }
+        append(QUOTE);
+    }
+
+    /**
+     * 행 종료
+     *
+     * @throws IOException
+     */
+    public void endRow() throws IOException {
+        append(LINE_SEPARATOR);
+        firstValue = true;
+    }
+
+    /**
+     * 문자 그대로 출력 (BOM 등)
+     *
+     * @param c
+     * @throws IOException
+     */
+    public void writeRaw(char c) throws IOException {
+        append(c);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private boolean needsQuote(String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == QUOTE || c == '\r' || c == '\n')
+                return true;
+        }
+
+        return false;
+    }
+
+    private void append(char c) throws IOException {
+        if (position == buffer.length)
+            flushBuffer();
+
+        buffer[position++] = c;
+    }
+
+    private void append(String value) throws IOException {
+        int offset = 0;
+        int length = value.length();
+
+        while (offset < length) {
+            if (position == buffer.length)
+                flushBuffer();
+
+            int count = Math.min(buffer.length - position, length - offset);
+            value.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0)
+            return;
+
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+}
@@ -0,0 +1,65 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.IOException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * 응답 출력 크기 집계
+ */
+class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private CountingServletOutputStream outputStream;
+
+    CountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null)
+            outputStream = new CountingServletOutputStream(super.getOutputStream());
+
+        return outputStream;
+    }
+
+    long getByteCount() {
+        return outputStream != null ? outputStream.count : 0;
+    }
+
+    private static class CountingServletOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream out;
+
+        private long count;
+
+        private CountingServletOutputStream(ServletOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,238 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import kr.qusi.spring.servlet.view.csv.CsvWriter;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.springframework.core.io.Resource;
+
+/**
+ * CSV/TSV 생성 엔진 (템플릿 사용안함, 메모리 사용량 일정)
+ * 적재 데이터 중 행 데이터(List, Map, Iterator 중 하나)를 출력하며,
+ * 열은 {@link ExportSource#getColumns()} 또는 첫 행(Map)의 키를 사용
+ */
+public class CsvExportEngine implements ExportEngine {
+
+    /** CSV 확장자 */
+    public static final String EXTENSION_CSV = ".csv";
+
+    /** CSV ContentType */
+    public static final String CONTENT_TYPE_CSV = "text/csv";
+
+    /** TSV 확장자 */
+    public static final String EXTENSION_TSV = ".tsv";
+
+    /** TSV ContentType */
+    public static final String CONTENT_TYPE_TSV = "text/tab-separated-values";
+
+    /** 날짜 형식 기본값 */
+    public static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static final char BOM = '\uFEFF';
+
+    /** 구분자 (기본값: ',', TSV 는 '\t') */
+    private char delimiter = ',';
+
+    private String charset = "UTF-8";
+
+    /** UTF-8 BOM 출력여부 (Excel 에서 UTF-8 로 인식, 다른 charset 은 출력안함) */
+    private boolean bom;
+
+    /** 제목행 출력여부 */
+    private boolean header = true;
+
+    private int bufferSize = CsvWriter.DEFAULT_BUFFER_SIZE;
+
+    private String dateFormat = DEFAULT_DATE_FORMAT;
+
+    @Override
+    public boolean supports(Resource template) {
+        return true;
+    }
+
+    @Override
+    public String getExtension(Resource template) {
+        return delimiter == '\t' ? EXTENSION_TSV : EXTENSION_CSV;
+    }
+
+    @Override
+    public String getContentType(Resource template) {
+        return (delimiter == '\t' ? CONTENT_TYPE_TSV : CONTENT_TYPE_CSV) + ";charset=" + charset;
+    }
+
+    @Override
+    public long export(ExportSource source, OutputStream os) throws Exception {
+        CsvWriter writer = new CsvWriter(new OutputStreamWriter(os, charset), delimiter, bufferSize);
+        if (bom && StandardCharsets.UTF_8.equals(Charset.forName(charset)))
+            writer.writeRaw(BOM);
+
+        Iterator<?> rows = toIterator(getRows(source.getBeans()));
+        Map<String, String> columns = source.getColumns();
+        DateFormat format = new SimpleDateFormat(dateFormat);
+        long count = 0;
+
+        // 지정된 컬럼은 데이터가 없어도 헤더를 출력
+        if (columns != null)
+            writeHeader(writer, columns);
+
+        while (rows.hasNext()) {
+            Object row = rows.next();
+
+            // 컬럼이 지정되지 않으면 첫 행에서 결정
+            if (columns == null) {
+                columns = getColumns(row);
+                writeHeader(writer, columns);
+            }
+
+            for (String property : columns.keySet())
+                writer.write(format(getValue(row, property), format));
+            writer.endRow();
+            count++;
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private void writeHeader(CsvWriter writer, Map<String, String> columns) throws IOException {
+        if (!header)
+            return;
+
+        for (String title : columns.values())
+            writer.write(title);
+        writer.endRow();
+    }
+
+    /**
+     * 행 데이터 조회 (List, Map, Iterator 형식의 적재 데이터, 하나만 허용)
+     */
+    protected Object getRows(Map<String, Object> beans) {
+        if (beans == null)
+            return null;
+
+        Object rows = null;
+        for (Object o : beans.values()) {
+            if (o instanceof Collection || o instanceof Map || o instanceof Iterator) {
+                if (rows != null)
+                    throw new IllegalArgumentException("Only one row data (List, Map or Iterator) is allowed");
+
+                rows = o;
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * 열 미지정시 첫 행(Map)의 키를 열로 사용
+     */
+    protected Map<String, String> getColumns(Object row) {
+        if (!(row instanceof Map))
+            throw new IllegalArgumentException("Columns not found, use Bundle.addColumn()");
+
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (Object key : ((Map<?, ?>) row).keySet())
+            columns.put(String.valueOf(key), String.valueOf(key));
+
+        return columns;
+    }
+
+    protected Object getValue(Object row, String property) {
+        if (row == null)
+            return null;
+        if (row instanceof Map)
+            return ((Map<?, ?>) row).get(property);
+
+        try {
+            return PropertyUtils.getProperty(row, property);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Property not readable: " + property, e);
+        }
+    }
+
+    protected String format(Object value, DateFormat format) {
+        if (value == null)
+            return null;
+        if (value instanceof Date)
+            return format.format((Date) value);
+        if (value instanceof BigDecimal)
+            return ((BigDecimal) value).toPlainString();
+
+        return String.valueOf(value);
+    }
+
+    private Iterator<?> toIterator(Object rows) {
+        if (rows == null)
+            return Collections.emptyIterator();
+        if (rows instanceof Iterator)
+            return (Iterator<?>) rows;
+        if (rows instanceof Map)
+            return ((Map<?, ?>) rows).values().iterator();
+        if (rows instanceof Object[])
+            return Arrays.asList((Object[]) rows).iterator();
+
+        return ((Collection<?>) rows).iterator();
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    public boolean isBom() {
+        return bom;
+    }
+
+    public void setBom(boolean bom) {
+        this.bom = bom;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    public void setDateFormat(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+}
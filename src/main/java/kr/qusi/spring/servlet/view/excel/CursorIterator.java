@@ -0,0 +1,198 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 콜백 방식의 조회(MyBatis ResultHandler, JdbcTemplate RowCallbackHandler 등)를 Iterator 로 변환
+ * 조회는 처음 hasNext() 호출시 지정한 Executor 의 Thread 에서 시작되며 최대 bufferSize 행만 미리 읽으므로,
+ * 소비가 느리면 조회도 대기함
+ * {@link Excel2View.Bundle#putExtra(String, Object)} 로 적재하면 분할 크기만큼씩 읽어 엑셀을 생성함
+ * <p>
+ * 조회 Thread 에는 호출한 Thread 의 트랜잭션, Connection(SqlSession) 이 연결되지 않으므로
+ * Producer 에서 직접 트랜잭션을 관리해야 함 (예: 읽기전용 TransactionTemplate 안에서 조회)
+ * 그렇지 않으면 별도 Connection 에서 조회되어 호출한 트랜잭션과 읽기 일관성, 롤백이 보장되지 않음
+ * Executor 는 Thread 수가 제한된 Pool 을 지정하며, 동시 커서 수만큼 Thread 를 점유함
+ *
+ * <pre>
+ * bundle.putExtra("list", new CursorIterator&lt;Item&gt;(new CursorIterator.Producer&lt;Item&gt;() {
+ *     public void produce(final CursorIterator.Sink&lt;Item&gt; sink) {
+ *         readOnlyTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+ *             protected void doInTransactionWithoutResult(TransactionStatus status) {
+ *                 itemMapper.selectAll(new ResultHandler() {
+ *                     public void handleResult(ResultContext context) {
+ *                         sink.put((Item) context.getResultObject());
+ *                     }
+ *                 });
+ *             }
+ *         });
+ *     }
+ * }, cursorExecutor));
+ * </pre>
+ */
+@Slf4j
+public class CursorIterator<T> implements Iterator<T>, Closeable {
+
+    /** 미리 읽을 최대 행 수 기본값 */
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    /** 대기중 종료여부 확인 간격 (ms) */
+    private static final long POLL_INTERVAL = 100;
+
+    private static final Object END = new Object();
+
+    private static final Object NULL = new Object();
+
+    private final BlockingQueue<Object> queue;
+
+    private volatile boolean closed;
+
+    private volatile Throwable failure;
+
+    private final Producer<T> producer;
+
+    private final Executor executor;
+
+    private boolean started;
+
+    private Object next;
+
+    /**
+     * @param producer 조회 (직접 트랜잭션 관리)
+     * @param executor 조회 Executor (Thread 수가 제한된 Pool)
+     */
+    public CursorIterator(Producer<T> producer, Executor executor) {
+        this(producer, executor, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CursorIterator(Producer<T> producer, Executor executor, int bufferSize) {
+        if (producer == null || executor == null)
+            throw new IllegalArgumentException("Producer and executor are required");
+
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.producer = producer;
+        this.executor = executor;
+    }
+
+    /**
+     * 조회 시작 (처음 hasNext() 호출시)
+     */
+    private void start() {
+        started = true;
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    producer.produce(new Sink<T>() {
+                        @Override
+                        public void put(T row) {
+                            offer(row == null ? NULL : row);
+                        }
+                    });
+                } catch (CancellationException e) {
+                    log.debug("Cursor closed before completion");
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    try {
+                        offer(END);
+                    } catch (CancellationException e) {
+                        // 이미 종료됨
+                    }
+                }
+            }
+        });
+    }
+
+    private void offer(Object row) {
+        try {
+            while (!queue.offer(row, POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (closed)
+                    throw new CancellationException("Cursor closed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Cursor interrupted");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (closed)
+                return false;
+
+            if (!started)
+                start();
+
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Cursor interrupted", e);
+            }
+        }
+
+        if (next == END) {
+            if (failure != null)
+                throw new IllegalStateException("Cursor failed", failure);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        Object row = next;
+        next = null;
+
+        return row == NULL ? null : (T) row;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * 조회 중단 (조회 Thread 의 {@link Sink#put(Object)} 에서 CancellationException 발생, 시작 전이면 조회하지 않음)
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    /**
+     * 조회 실행 (별도 Thread, 트랜잭션은 직접 관리)
+     */
+    public interface Producer<T> {
+
+        void produce(Sink<T> sink) throws Exception;
+
+    }
+
+    /**
+     * 조회된 행 전달
+     */
+    public interface Sink<T> {
+
+        void put(T row);
+
+    }
+
+}
@@ -1,7 +1,8 @@
 package kr.qusi.spring.servlet.view.excel;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -9,12 +10,26 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -22,12 +37,16 @@ import javax.servlet.http.HttpServletResponse;
 import kr.qusi.spring.servlet.view.encoding.DefaultFilenameEncoder;
 import kr.qusi.spring.servlet.view.encoding.FilenameEncoder;
 import lombok.extern.slf4j.Slf4j;
-import net.sf.jxls.transformer.XLSTransformer;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.context.support.ServletContextResource;
 import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
@@ -59,6 +78,12 @@ public class Excel2View extends AbstractUrlBasedView {
     /** Zip ContentType */
     public static final String CONTENT_TYPE_ZIP = "application/zip";
 
+    /** 요청당 분할 파일 병렬 생성 수 기본값 */
+    public static final int DEFAULT_PARALLELISM = 2;
+
+    /** 렌더링중인 통계 수집기 (분할 파일 작업 Thread 로 전달됨) */
+    private static final ThreadLocal<ExportMetrics.Recorder> RECORDER = new ThreadLocal<>();
+
     private String viewName;
 
     private String prefix;
@@ -68,59 +93,292 @@ public class Excel2View extends AbstractUrlBasedView {
     /** 파일명 인코더 */
     private FilenameEncoder filenameEncoder = new DefaultFilenameEncoder();
 
+    /** 스트리밍 모드 (.xlsx 템플릿만 해당, 분할하지 않고 단일 파일로 생성) */
+    private boolean streaming;
+
+    /** 스트리밍 모드에서 메모리에 유지할 행 수 */
+    private int windowSize = StreamingWorkbookWriter.DEFAULT_WINDOW_SIZE;
+
+    /** 분할 파일을 임시폴더 없이 응답 zip 으로 바로 출력 */
+    private boolean pipelined;
+
+    /** 분할 파일 병렬 생성 Executor (지정시 병렬 생성) */
+    private AsyncTaskExecutor partExecutor;
+
+    /** 요청당 동시에 생성할 분할 파일 최대 수 */
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    /** 템플릿 캐시 (미지정시 매번 Resource 에서 읽음) */
+    private TemplateCache templateCache;
+
+    /** 템플릿 색인 (미지정시 매번 파일시스템 확인) */
+    private TemplateIndex templateIndex;
+
+    /** 동시 생성 제한 (미지정시 제한없음, 여러 뷰가 공유) */
+    private ExportAdmissionController admissionController;
+
+    /** 생성 통계 (미지정시 수집안함, 여러 뷰가 공유) */
+    private ExportMetrics metrics;
+
+    /** 분할 파일 생성 엔진 */
+    private JxlsExportEngine jxlsEngine = new JxlsExportEngine();
+
+    /** 생성 엔진 선택기 (지정시 예상 크기에 따라 대용량 엔진으로 전환) */
+    private ExportEngineSelector engineSelector;
+
+    /** 이미 압축된 분할 파일(.xlsx)을 압축없이(STORED) 저장 */
+    private boolean storeCompressed = true;
+
+    /** 분할 파일(.xls) 압축 수준 (0~9, -1: 기본값) */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
     @Override
     protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
         if (model.get(BUNDLE) == null || !(model.get(BUNDLE) instanceof Bundle))
             throw new IllegalArgumentException("Bundle not found");
 
         Bundle bundle = (Bundle) model.get(BUNDLE);
-        String basename = getBasename(request, bundle);
-        Resource template = getTemplate(request, bundle);
-        List<Map<String, Object>> extras = bundle.getExtrasAsList();
-        int extraSize = extras == null ? 0 : extras.size();
+
+        try {
+            long lookupStart = System.nanoTime();
+            Resource template = getTemplate(request, bundle);
+            ExportEngine engine = getEngine(bundle, template);
+            ExportAdmissionController.Permit permit = null;
+
+            // 동시 생성 수 및 메모리 예산 확인
+            if (getAdmissionController() != null) {
+                try {
+                    permit = getAdmissionController().acquire(estimateFootprint(bundle, template, engine));
+                } catch (ExportRejectedException e) {
+                    getAdmissionController().sendRejected(response, e);
+                    return;
+                }
+            }
+
+            try {
+                if (getMetrics() != null)
+                    renderRecorded(bundle, template, engine, lookupStart, request, response);
+                else
+                    renderBundle(bundle, template, engine, request, response);
+            } finally {
+                if (permit != null)
+                    permit.release();
+            }
+        } finally {
+            // 지연 조회 데이터 (Cursor 등) 정리
+            IOUtils.closeQuietly(bundle);
+        }
+
+        response.flushBuffer();
+    }
+
+    /**
+     * 통계 수집하며 생성
+     */
+    private void renderRecorded(Bundle bundle, Resource template, ExportEngine engine, long lookupStart,
+                                HttpServletRequest request, HttpServletResponse response) throws Exception {
+        ExportMetrics.Recorder recorder = getMetrics().start(template);
+        recorder.addPhase(ExportMetrics.Phase.LOOKUP, lookupStart);
+
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        boolean failed = true;
+        RECORDER.set(recorder);
+
+        try {
+            renderBundle(bundle, template, engine, request, counting);
+            failed = false;
+        } finally {
+            RECORDER.remove();
+            getMetrics().finish(recorder, counting.getByteCount(), failed);
+        }
+    }
+
+    protected void renderBundle(Bundle bundle, Resource template, ExportEngine engine, HttpServletRequest request,
+                                HttpServletResponse response) throws Exception {
+        String basename = getBasename(bundle, template);
 
         log.debug("basename: {}", basename);
         log.debug("template: {}", template);
-        log.debug("extras: {}", extraSize);
+
+        // 대용량 엔진 (스트리밍 등, 분할없이 단일파일)
+        if (!isSplitting(engine)) {
+            renderEngine(bundle, basename, template, engine, request, response);
+            return;
+        }
+
+        Bundle.ExtrasIterator parts = bundle.getExtrasAsIterator();
+
+        log.debug("lazy: {}", bundle.isLazy());
 
         // 단일파일
-        if (extraSize <= 1) {
+        if (parts.isSingle()) {
             String filename = basename + getSuffix();
             log.debug("File: {} (1/1)", filename);
             prepareAttachment(request, response, filename);
 
-            BufferedInputStream is = null;
+            transform(template, parts.next(), response.getOutputStream());
+        }
+        // 복수파일 (병렬 생성, 순서대로 응답 zip 으로 출력)
+        else if (isParallel()) {
+            renderParallel(parts, basename, template, request, response);
+        }
+        // 복수파일 (임시폴더 없이 응답으로 바로 zip 압축)
+        else if (isPipelined()) {
+            renderPipelined(parts, basename, template, request, response);
+        }
+        // 복수파일 (zip 압축)
+        else {
+            renderTempDirectory(parts, basename, template, request, response);
+        }
+    }
+
+    /**
+     * 생성 엔진 선택
+     * 스트리밍 모드는 스트리밍 엔진, 엔진 선택기 지정시 예상 행 수로 선택, 그외 jxls (분할 생성)
+     * 스트리밍 엔진에는 뷰의 windowSize 를 적용
+     *
+     * @param bundle
+     * @param template
+     * @return
+     */
+    protected ExportEngine getEngine(Bundle bundle, Resource template) {
+        if (isStreaming(template))
+            return new StreamingExportEngine(getWindowSize());
+
+        if (getEngineSelector() != null) {
+            ExportEngine engine = getEngineSelector().select(template, ExportEngineSelector.estimateRows(bundle.getExtras()));
+            if (engine instanceof StreamingExportEngine)
+                return ((StreamingExportEngine) engine).withWindowSize(getWindowSize());
+
+            return engine;
+        }
+
+        return getJxlsEngine();
+    }
+
+    /**
+     * 분할 생성 여부 (jxls 엔진만 분할하며, 그외 엔진은 단일파일로 생성)
+     */
+    protected boolean isSplitting(ExportEngine engine) {
+        return engine instanceof JxlsExportEngine;
+    }
+
+    /**
+     * 예상 메모리 (한번에 생성되는 분할 파일 기준)
+     *
+     * @param bundle
+     * @param template
+     * @param engine
+     * @return
+     */
+    protected long estimateFootprint(Bundle bundle, Resource template, ExportEngine engine) {
+        if (!isSplitting(engine))
+            return getAdmissionController().estimate(bundle.getExtras(), getWindowSize(), 1);
+
+        return getAdmissionController().estimate(bundle.getExtras(), bundle.getSplitSize(),
+                isParallel() ? getParallelism() : 1);
+    }
+
+    /**
+     * 요청(응답)과 무관하게 엑셀 생성 (백그라운드 작업 등)
+     * 분할이 필요한 경우 zip 으로 출력하며, 임시폴더는 사용하지 않음
+     *
+     * @param bundle   적재 데이터 (완료 후 닫힘)
+     * @param template 템플릿 ({@link #getTemplate(HttpServletRequest, Bundle)} 로 미리 조회)
+     * @param os       출력 Stream
+     * @return 생성된 파일명 (확장자 포함)
+     * @throws ExportRejectedException 동시 생성 수 또는 메모리 예산 초과 ({@link #setAdmissionController})
+     * @throws Exception
+     */
+    public String export(Bundle bundle, Resource template, OutputStream os) throws Exception {
+        if (getMetrics() == null)
+            return exportBundle(bundle, template, os);
+
+        ExportMetrics.Recorder recorder = getMetrics().start(template);
+        CountingOutputStream counting = new CountingOutputStream(os);
+        boolean failed = true;
+        RECORDER.set(recorder);
+
+        try {
+            String filename = exportBundle(bundle, template, counting);
+            failed = false;
+            return filename;
+        } finally {
+            RECORDER.remove();
+            getMetrics().finish(recorder, counting.getByteCount(), failed);
+        }
+    }
+
+    private String exportBundle(Bundle bundle, Resource template, OutputStream os) throws Exception {
+        try {
+            String basename = getBasename(bundle, template);
+            ExportEngine engine = getEngine(bundle, template);
+
+            // 백그라운드 작업도 요청과 같은 동시 생성 수 및 메모리 예산 적용 (초과시 ExportRejectedException)
+            ExportAdmissionController.Permit permit = null;
+            if (getAdmissionController() != null)
+                permit = getAdmissionController().acquire(estimateFootprint(bundle, template, engine));
 
             try {
-                is = new BufferedInputStream(template.getInputStream());
+                if (!isSplitting(engine)) {
+                    writeEngine(bundle, template, engine, os);
+                    return basename + engine.getExtension(template);
+                }
+
+                Bundle.ExtrasIterator parts = bundle.getExtrasAsIterator();
+
+                if (parts.isSingle()) {
+                    transform(template, parts.next(), os);
+                    return basename + getSuffix();
+                }
 
-                Workbook workbook = new XLSTransformer().transformXLS(is, bundle.getExtras());
-                workbook.write(response.getOutputStream());
+                if (isParallel())
+                    writeParallel(parts, basename, template, os);
+                else
+                    writePipelined(parts, basename, template, os);
+
+                return basename + EXTENSION_ZIP;
             } finally {
-                IOUtils.closeQuietly(is);
+                if (permit != null)
+                    permit.release();
             }
-
+        } finally {
+            IOUtils.closeQuietly(bundle);
         }
-        // 복수파일 (zip 압축)
-        else {
-            File tempDir = createTempDirectory();
-            log.debug("Temp: {}", tempDir);
+    }
 
-            for (int index = 0, count = 1; index < extraSize; index++, count++) {
-                BufferedInputStream is = null;
-                BufferedOutputStream os = null;
+    /**
+     * 분할 파일을 임시폴더에 생성한 후 zip 으로 압축하여 출력
+     *
+     * @param parts
+     * @param basename
+     * @param template
+     * @param request
+     * @param response
+     * @throws IOException
+     * @throws InvalidFormatException
+     */
+    protected void renderTempDirectory(Iterator<Map<String, Object>> parts, String basename, Resource template,
+                                       HttpServletRequest request, HttpServletResponse response)
+            throws IOException, InvalidFormatException {
+        File tempDir = createTempDirectory();
+        log.debug("Temp: {}", tempDir);
+
+        // 파일 생성시 함께 계산한 CRC (STORED 저장시 다시 읽지 않음)
+        Map<String, Long> checksums = new HashMap<>();
+
+        try {
+            for (int count = 1; parts.hasNext(); count++) {
+                CheckedOutputStream os = null;
 
                 try {
                     String filename = basename + "_" + count + getSuffix();
-                    log.debug("File: {} ({}/{})", filename, count, extraSize);
+                    log.debug("File: {} ({})", filename, count);
 
-                    is = new BufferedInputStream(template.getInputStream());
-                    os = new BufferedOutputStream(new FileOutputStream(new File(tempDir, filename)));
-
-                    Workbook workbook = new XLSTransformer().transformXLS(is, extras.get(index));
-                    workbook.write(os);
+                    os = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(new File(tempDir, filename))), new CRC32());
+                    transform(template, parts.next(), os);
+                    checksums.put(filename, os.getChecksum().getValue());
                 } finally {
-                    IOUtils.closeQuietly(is);
                     IOUtils.closeQuietly(os);
                 }
             }
@@ -128,15 +386,294 @@ public class Excel2View extends AbstractUrlBasedView {
             // 압축파일 다운로드
             prepareAttachment(request, response, basename + EXTENSION_ZIP);
             response.setContentType(CONTENT_TYPE_ZIP);
-            zip(tempDir, response.getOutputStream());
+
+            long zipStart = System.nanoTime();
+            zip(tempDir, response.getOutputStream(), checksums);
+            recordPhase(ExportMetrics.Phase.ZIP, zipStart);
+        } finally {
+            FileUtils.deleteQuietly(tempDir);
         }
+    }
 
-        response.flushBuffer();
+    /**
+     * 분할 파일을 생성하는 즉시 응답 ZipOutputStream 으로 출력
+     * 임시폴더를 사용하지 않으며 첫 분할 파일이 완성되면 전송이 시작됨
+     *
+     * @param parts
+     * @param basename
+     * @param template
+     * @param request
+     * @param response
+     * @throws IOException
+     * @throws InvalidFormatException
+     */
+    protected void renderPipelined(Iterator<Map<String, Object>> parts, String basename, Resource template,
+                                   HttpServletRequest request, HttpServletResponse response)
+            throws IOException, InvalidFormatException {
+        prepareAttachment(request, response, basename + EXTENSION_ZIP);
+        response.setContentType(CONTENT_TYPE_ZIP);
+
+        writePipelined(parts, basename, template, response.getOutputStream());
+    }
+
+    /**
+     * 분할 파일을 생성하는 즉시 zip 으로 출력
+     *
+     * @param parts
+     * @param basename
+     * @param template
+     * @param out      출력 Stream (완료 후 닫힘)
+     * @throws IOException
+     * @throws InvalidFormatException
+     */
+    protected void writePipelined(Iterator<Map<String, Object>> parts, String basename, Resource template,
+                                  OutputStream out) throws IOException, InvalidFormatException {
+        ZipOutputStream os = null;
+
+        try {
+            os = createZipOutputStream(out);
+
+            for (int count = 1; parts.hasNext(); count++) {
+                String filename = basename + "_" + count + getSuffix();
+                log.debug("File: {} ({})", filename, count);
+
+                // 이미 압축된 형식은 CRC 를 계산하며 버퍼에 생성한 후 STORED 로 저장
+                if (isCompressed(filename)) {
+                    PartBuffer part = new PartBuffer();
+                    transform(template, parts.next(), part);
+
+                    long zipStart = System.nanoTime();
+                    part.writeEntry(os, filename, true);
+                    os.flush();
+                    recordPhase(ExportMetrics.Phase.ZIP, zipStart);
+                    continue;
+                }
+
+                long zipStart = System.nanoTime();
+                os.putNextEntry(new ZipEntry(filename));
+                recordPhase(ExportMetrics.Phase.ZIP, zipStart);
+
+                // XSSFWorkbook.write() 는 Stream 을 닫으므로 보호 (압축은 WRITE 단계에 포함됨)
+                transform(template, parts.next(), new CloseShieldOutputStream(os));
+
+                zipStart = System.nanoTime();
+                os.closeEntry();
+                os.flush();
+                recordPhase(ExportMetrics.Phase.ZIP, zipStart);
+            }
+
+            os.finish();
+        } finally {
+            IOUtils.closeQuietly(os);
+        }
+    }
+
+    /**
+     * 분할 파일을 작업 Executor 에서 병렬로 생성하고, 생성 순서와 무관하게 순서대로 응답 zip 으로 출력
+     * 요청당 동시에 생성중인 분할 파일은 최대 parallelism 개로 제한됨
+     *
+     * @param parts
+     * @param basename
+     * @param template
+     * @param request
+     * @param response
+     * @throws Exception
+     */
+    protected void renderParallel(Iterator<Map<String, Object>> parts, String basename, Resource template,
+                                  HttpServletRequest request, HttpServletResponse response) throws Exception {
+        prepareAttachment(request, response, basename + EXTENSION_ZIP);
+        response.setContentType(CONTENT_TYPE_ZIP);
+
+        writeParallel(parts, basename, template, response.getOutputStream());
+    }
+
+    /**
+     * 분할 파일을 병렬로 생성하여 순서대로 zip 으로 출력
+     *
+     * @param parts
+     * @param basename
+     * @param template
+     * @param out      출력 Stream (완료 후 닫힘)
+     * @throws Exception
+     */
+    protected void writeParallel(Iterator<Map<String, Object>> parts, String basename, Resource template,
+                                 OutputStream out) throws Exception {
+        Deque<Future<PartBuffer>> pending = new ArrayDeque<>();
+        ZipOutputStream os = null;
+
+        try {
+            os = createZipOutputStream(out);
+
+            for (int count = 1; ; count++) {
+                while (parts.hasNext() && pending.size() < getParallelism())
+                    pending.add(submitPart(template, parts.next()));
+
+                if (pending.isEmpty())
+                    break;
+
+                String filename = basename + "_" + count + getSuffix();
+                log.debug("File: {} ({})", filename, count);
+
+                PartBuffer part = getPart(pending.poll());
+
+                long zipStart = System.nanoTime();
+                part.writeEntry(os, filename, isCompressed(filename));
+                os.flush();
+                recordPhase(ExportMetrics.Phase.ZIP, zipStart);
+            }
+
+            os.finish();
+        } finally {
+            for (Future<PartBuffer> part : pending)
+                part.cancel(true);
+
+            IOUtils.closeQuietly(os);
+        }
+    }
+
+    /**
+     * 분할 파일 생성 작업 등록
+     * Executor 가 포화상태인 경우 요청 Thread 에서 직접 생성
+     */
+    private Future<PartBuffer> submitPart(final Resource template, final Map<String, Object> beans) {
+        final ExportMetrics.Recorder recorder = RECORDER.get();
+
+        Callable<PartBuffer> task = new Callable<PartBuffer>() {
+            @Override
+            public PartBuffer call() throws Exception {
+                // 작업 Thread 에서 생성되는 경우 통계 수집기 전달
+                boolean worker = recorder != null && RECORDER.get() != recorder;
+                long allocatedStart = 0;
+                if (worker) {
+                    RECORDER.set(recorder);
+                    allocatedStart = ExportMetrics.allocatedBytes();
+                }
+
+                try {
+                    PartBuffer os = new PartBuffer();
+                    transform(template, beans, os);
+                    return os;
+                } finally {
+                    if (worker) {
+                        recorder.addAllocatedBytes(ExportMetrics.allocatedBytes() - allocatedStart);
+                        RECORDER.remove();
+                    }
+                }
+            }
+        };
+
+        try {
+            return getPartExecutor().submit(task);
+        } catch (TaskRejectedException e) {
+            log.debug("Part executor rejected, run in request thread");
+
+            FutureTask<PartBuffer> future = new FutureTask<>(task);
+            future.run();
+            return future;
+        }
+    }
+
+    private PartBuffer getPart(Future<PartBuffer> part) throws Exception {
+        try {
+            return part.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 템플릿 변환 후 출력
+     *
+     * @param template 템플릿
+     * @param beans    적재 데이터
+     * @param os       출력 Stream
+     * @throws IOException
+     * @throws InvalidFormatException
+     */
+    protected void transform(Resource template, Map<String, Object> beans, OutputStream os)
+            throws IOException, InvalidFormatException {
+        long start = System.nanoTime();
+        Workbook workbook = getJxlsEngine().transform(template, beans, getTemplateCache());
+        recordPhase(ExportMetrics.Phase.TRANSFORM, start);
+
+        start = System.nanoTime();
+        workbook.write(os);
+        recordPhase(ExportMetrics.Phase.WRITE, start);
+        recordPart(ExportMetrics.countRows(beans));
+    }
+
+    private void recordPhase(ExportMetrics.Phase phase, long start) {
+        ExportMetrics.Recorder recorder = RECORDER.get();
+        if (recorder != null)
+            recorder.addPhase(phase, start);
+    }
+
+    private void recordPart(long rows) {
+        ExportMetrics.Recorder recorder = RECORDER.get();
+        if (recorder != null) {
+            recorder.addRows(rows);
+            recorder.addPart();
+        }
+    }
+
+    /**
+     * 엔진으로 단일파일 생성 (스트리밍, CSV 등)
+     *
+     * @param bundle
+     * @param basename
+     * @param template
+     * @param engine
+     * @param request
+     * @param response
+     * @throws Exception
+     */
+    protected void renderEngine(Bundle bundle, String basename, Resource template, ExportEngine engine,
+                                HttpServletRequest request, HttpServletResponse response) throws Exception {
+        String filename = basename + engine.getExtension(template);
+        log.debug("File: {} ({})", filename, engine.getClass().getSimpleName());
+        prepareAttachment(request, response, filename);
+        response.setContentType(engine.getContentType(template));
+
+        writeEngine(bundle, template, engine, response.getOutputStream());
+    }
+
+    /**
+     * 엔진으로 생성 후 출력
+     *
+     * @param bundle
+     * @param template
+     * @param engine
+     * @param os       출력 Stream
+     * @return 출력된 행 수
+     * @throws Exception
+     */
+    protected long writeEngine(Bundle bundle, Resource template, ExportEngine engine, OutputStream os)
+            throws Exception {
+        long start = System.nanoTime();
+
+        // 변환과 출력이 행 단위로 함께 진행되므로 WRITE 단계로 기록
+        ExportSource source = new ExportSource(template, bundle.getExtras())
+                .setColumns(bundle.getColumns())
+                .setTemplateCache(getTemplateCache());
+        long rows = engine.export(source, os);
+        log.debug("Rows: {}", rows);
+
+        recordPhase(ExportMetrics.Phase.WRITE, start);
+        recordPart(rows);
+
+        return rows;
     }
 
     protected String getBasename(HttpServletRequest request, Bundle bundle) throws FileNotFoundException {
         return bundle.getFilename() != null ?
-                FilenameUtils.getBaseName(bundle.getFilename()) : FilenameUtils.getBaseName(getTemplate(request, bundle).getFilename());
+                FilenameUtils.getBaseName(bundle.getFilename()) : getBasename(bundle, getTemplate(request, bundle));
+    }
+
+    protected String getBasename(Bundle bundle, Resource template) {
+        return FilenameUtils.getBaseName(bundle.getFilename() != null ? bundle.getFilename() : template.getFilename());
     }
 
     protected Resource getTemplate(HttpServletRequest request, Bundle bundle) throws FileNotFoundException {
@@ -156,14 +693,50 @@ public class Excel2View extends AbstractUrlBasedView {
 
         // 템플릿 파일 찾기
         for (String tmplName : candidateTmpls) {
-            Resource template = new ServletContextResource(request.getServletContext(), tmplName);
-            if (template.exists())
+            Resource template = findTemplate(request, tmplName);
+            if (template != null)
                 return template;
         }
 
         throw new FileNotFoundException("Template not found");
     }
 
+    /**
+     * 템플릿 조회 (색인 사용시 파일시스템을 확인하지 않음)
+     *
+     * @param request
+     * @param path    템플릿 경로
+     * @return 템플릿 or null
+     */
+    protected Resource findTemplate(HttpServletRequest request, String path) {
+        if (getTemplateIndex() != null)
+            return getTemplateIndex().find(path);
+
+        Resource template = new ServletContextResource(request.getServletContext(), path);
+        return template.exists() ? template : null;
+    }
+
+    /**
+     * 스트리밍 모드 적용여부 (.xlsx 템플릿만 가능)
+     */
+    protected boolean isStreaming(Resource template) {
+        if (!isStreaming())
+            return false;
+
+        boolean xlsx = EXTENSION_XLSX.equalsIgnoreCase("." + FilenameUtils.getExtension(template.getFilename()));
+        if (!xlsx)
+            log.warn("Streaming mode supports '.xlsx' template only: {}", template);
+
+        return xlsx;
+    }
+
+    /**
+     * 분할 파일 병렬 생성여부
+     */
+    protected boolean isParallel() {
+        return getPartExecutor() != null && 1 < getParallelism();
+    }
+
     protected File createTempDirectory() throws IOException {
         File file = File.createTempFile("excel2view-", "", getTempDir());
         FileUtils.forceDelete(file);
@@ -226,6 +799,116 @@ public class Excel2View extends AbstractUrlBasedView {
         this.suffix = lower;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    public AsyncTaskExecutor getPartExecutor() {
+        return partExecutor;
+    }
+
+    public void setPartExecutor(AsyncTaskExecutor partExecutor) {
+        this.partExecutor = partExecutor;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("'parallelism' must be greater than 0");
+
+        this.parallelism = parallelism;
+    }
+
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public TemplateIndex getTemplateIndex() {
+        return templateIndex;
+    }
+
+    public void setTemplateIndex(TemplateIndex templateIndex) {
+        this.templateIndex = templateIndex;
+    }
+
+    public ExportAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public void setAdmissionController(ExportAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public ExportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(ExportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public JxlsExportEngine getJxlsEngine() {
+        return jxlsEngine;
+    }
+
+    public void setJxlsEngine(JxlsExportEngine jxlsEngine) {
+        this.jxlsEngine = jxlsEngine;
+    }
+
+    public ExportEngineSelector getEngineSelector() {
+        return engineSelector;
+    }
+
+    public void setEngineSelector(ExportEngineSelector engineSelector) {
+        this.engineSelector = engineSelector;
+    }
+
+    public boolean isStoreCompressed() {
+        return storeCompressed;
+    }
+
+    public void setStoreCompressed(boolean storeCompressed) {
+        this.storeCompressed = storeCompressed;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+
+        this.compressionLevel = compressionLevel;
+    }
+
     public FilenameEncoder getFilenameEncoder() {
         return filenameEncoder;
     }
@@ -245,15 +928,26 @@ public class Excel2View extends AbstractUrlBasedView {
      * @param dest 출력 Stream
      */
     protected void zip(File src, OutputStream dest) {
+        zip(src, dest, Collections.<String, Long>emptyMap());
+    }
+
+    /**
+     * ZIP 압축
+     *
+     * @param src       압축대상
+     * @param dest      출력 Stream
+     * @param checksums 파일명별 CRC (STORED 저장시 사용, 없으면 파일을 읽어 계산)
+     */
+    protected void zip(File src, OutputStream dest, Map<String, Long> checksums) {
         ZipOutputStream os = null;
 
         try {
-            os = new ZipOutputStream(new BufferedOutputStream(dest));
+            os = createZipOutputStream(dest);
 
             if (src.isFile()) {
-                zipFile(src, os);
+                zipFile(src, os, checksums.get(src.getName()));
             } else if (src.isDirectory()) {
-                zipDirectory(src, os);
+                zipDirectory(src, os, checksums);
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -270,6 +964,18 @@ public class Excel2View extends AbstractUrlBasedView {
      * @throws IOException
      */
     protected void zipDirectory(File src, ZipOutputStream dest) throws IOException {
+        zipDirectory(src, dest, Collections.<String, Long>emptyMap());
+    }
+
+    /**
+     * 폴더압축 (재귀안됨)
+     *
+     * @param src       폴더경로
+     * @param dest      ZipOutputStream
+     * @param checksums 파일명별 CRC
+     * @throws IOException
+     */
+    protected void zipDirectory(File src, ZipOutputStream dest, Map<String, Long> checksums) throws IOException {
         if (src == null || !src.isDirectory())
             return;
 
@@ -278,7 +984,7 @@ public class Excel2View extends AbstractUrlBasedView {
             return;
 
         for (File f : files) {
-            zipFile(f, dest);
+            zipFile(f, dest, checksums.get(f.getName()));
         }
     }
 
@@ -290,26 +996,117 @@ public class Excel2View extends AbstractUrlBasedView {
      * @throws IOException
      */
     protected void zipFile(File src, ZipOutputStream dest) throws IOException {
+        zipFile(src, dest, null);
+    }
+
+    /**
+     * 단일 파일압축 (이미 압축된 형식은 STORED 로 저장)
+     *
+     * @param src      파일경로
+     * @param dest     ZipOutputStream
+     * @param checksum CRC (null 인 경우 STORED 저장시 파일을 읽어 계산)
+     * @throws IOException
+     */
+    protected void zipFile(File src, ZipOutputStream dest, Long checksum) throws IOException {
         if (src == null || !src.isFile())
             return;
 
+        ZipEntry entry = new ZipEntry(src.getName());
+        if (isCompressed(src.getName())) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(src.length());
+            entry.setCompressedSize(src.length());
+            entry.setCrc(checksum != null ? checksum : FileUtils.checksumCRC32(src));
+        }
+
         FileInputStream is = null;
 
         try {
             is = new FileInputStream(src);
 
-            dest.putNextEntry(new ZipEntry(src.getName()));
-            IOUtils.copy(new FileInputStream(src), dest);
+            dest.putNextEntry(entry);
+            IOUtils.copy(is, dest);
+            dest.closeEntry();
         } finally {
             IOUtils.closeQuietly(is);
         }
     }
 
+    /**
+     * 압축 수준을 적용한 ZipOutputStream
+     * 항목 크기 4GB 또는 항목 수 65535 개를 넘으면 ZIP64 형식으로 자동 기록됨 (Java 7 이상)
+     *
+     * @param out 출력 Stream
+     * @return
+     */
+    protected ZipOutputStream createZipOutputStream(OutputStream out) {
+        ZipOutputStream os = new ZipOutputStream(new BufferedOutputStream(out));
+        os.setLevel(getCompressionLevel());
+        return os;
+    }
+
+    /**
+     * 이미 압축된 형식(.xlsx, .zip)인지 확인 (다시 압축해도 크기가 줄지 않으므로 STORED 로 저장)
+     *
+     * @param filename 파일명
+     * @return
+     */
+    protected boolean isCompressed(String filename) {
+        if (!isStoreCompressed())
+            return false;
+
+        String extension = "." + FilenameUtils.getExtension(filename).toLowerCase();
+        return EXTENSION_XLSX.equals(extension) || EXTENSION_ZIP.equals(extension);
+    }
+
+    /**
+     * 분할 파일 버퍼 (기록과 동시에 CRC 계산)
+     */
+    private static class PartBuffer extends ByteArrayOutputStream {
+
+        private final CRC32 crc = new CRC32();
+
+        @Override
+        public synchronized void write(int b) {
+            super.write(b);
+            crc.update(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        /**
+         * zip 항목으로 기록
+         *
+         * @param os       ZipOutputStream
+         * @param filename 항목명
+         * @param stored   STORED 저장여부
+         * @throws IOException
+         */
+        public void writeEntry(ZipOutputStream os, String filename, boolean stored) throws IOException {
+            ZipEntry entry = new ZipEntry(filename);
+            if (stored) {
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(count);
+                entry.setCompressedSize(count);
+                entry.setCrc(crc.getValue());
+            }
+
+            os.putNextEntry(entry);
+            os.write(buf, 0, count);
+            os.closeEntry();
+        }
+
+    }
+
     // ========================================
     // Bundle - 엑셀 적재정보
     // ========================================
 
-    public static class Bundle {
+    public static class Bundle implements Closeable {
 
         /** 분할 크기 최댓값 (xls 최대행 65k 또는 성능상 이유로 제한) */
         private static final int MAX_SPLIT_SIZE = 60000;
@@ -329,6 +1126,9 @@ public class Excel2View extends AbstractUrlBasedView {
         /** 적재 데이터 */
         private Map<String, Object> extras;
 
+        /** 컬럼 정의 (속성 → 제목), 템플릿이 없는 출력(CSV 등)에서 사용 */
+        private Map<String, String> columns;
+
         public String getFilename() {
             return filename;
         }
@@ -356,6 +1156,13 @@ public class Excel2View extends AbstractUrlBasedView {
             this.splitSize = splitSize;
         }
 
+        /**
+         * 데이터 적재
+         * Iterator (예: {@link CursorIterator}) 는 지연 조회 데이터로 처리되어 분할 크기만큼씩 읽음
+         *
+         * @param key   이름
+         * @param value List, Map, Iterator 또는 단일 값
+         */
         public void putExtra(String key, Object value) {
             if (extras == null)
                 extras = new HashMap<>();
@@ -368,6 +1175,23 @@ public class Excel2View extends AbstractUrlBasedView {
             }
         }
 
+        /**
+         * 컬럼 추가 (템플릿이 없는 출력에서 사용, 추가 순서대로 출력)
+         *
+         * @param property 행 속성 (Map 키 또는 Bean 속성)
+         * @param title    제목
+         */
+        public void addColumn(String property, String title) {
+            if (columns == null)
+                columns = new LinkedHashMap<>();
+
+            columns.put(property, title);
+        }
+
+        public Map<String, String> getColumns() {
+            return columns;
+        }
+
         public Object getExtra(String key) {
             return extras != null ? extras.get(key) : null;
         }
@@ -376,55 +1200,121 @@ public class Excel2View extends AbstractUrlBasedView {
             return extras;
         }
 
+        /**
+         * 지연 조회 데이터 (Iterator) 포함여부
+         */
+        public boolean isLazy() {
+            if (extras == null)
+                return false;
+
+            for (Object o : extras.values()) {
+                if (o instanceof Iterator)
+                    return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * 분할된 적재 데이터 목록
+         * 지연 조회 데이터는 모두 읽어 메모리에 적재되므로 {@link #getExtrasAsIterator()} 사용을 권장
+         */
         public List<Map<String, Object>> getExtrasAsList() {
             if (extras == null)
                 return null;
 
-            int maxSize = getMaxSize();
-            int count = (int) Math.ceil((double) maxSize / (double) getSplitSize());
             List<Map<String, Object>> list = new ArrayList<>();
 
-            for (int i = 0; i < count; i++) {
-                int startIdx = i * getSplitSize();
-                int endIdx = (i + 1) * getSplitSize();
+            if (isLazy()) {
+                ExtrasIterator it = getExtrasAsIterator();
+                while (it.hasNext())
+                    list.add(it.next());
 
-                Map<String, Object> extra = new HashMap<>();
+                return list;
+            }
 
-                for (String extraKey : extras.keySet()) {
-                    Object oObj = extras.get(extraKey);
-                    Object nObj = oObj;
+            int count = getCount();
+            Map<String, KeyIndex> keyIndexes = new HashMap<>();
+            for (int i = 0; i < count; i++)
+                list.add(createExtra(i, Collections.<String, LazyRows>emptyMap(), keyIndexes));
 
-                    if (oObj instanceof List) {
-                        List oList = ((List) oObj);
+            return list;
+        }
 
-                        if (startIdx < oList.size()) {
-                            nObj = oList.subList(startIdx, Math.min(endIdx, oList.size()));
-                        } else {
-                            nObj = Collections.EMPTY_LIST;
-                        }
-                    } else if (oObj instanceof Map) {
-                        Map oMap = ((Map) oObj);
+        /**
+         * 분할된 적재 데이터를 순서대로 생성하는 Iterator
+         * 지연 조회 데이터는 분할 크기만큼씩 읽으므로 메모리 사용량이 분할 크기로 제한됨
+         */
+        public ExtrasIterator getExtrasAsIterator() {
+            return new ExtrasIterator();
+        }
 
-                        if (startIdx < oMap.size()) {
-                            List<String> oKeys = new ArrayList<String>(oMap.keySet())
-                                    .subList(startIdx, Math.min(endIdx, oMap.size()));
+        /**
+         * 지연 조회 데이터 중 Closeable (예: {@link CursorIterator}) 정리
+         */
+        @Override
+        public void close() throws IOException {
+            if (extras == null)
+                return;
 
-                            nObj = new HashMap<String, Object>();
-                            for (String oKey : oKeys) {
-                                ((Map) nObj).put(oKey, oMap.get(oKey));
-                            }
-                        } else {
-                            nObj = Collections.EMPTY_MAP;
-                        }
+            for (Object o : extras.values()) {
+                if (o instanceof Closeable)
+                    ((Closeable) o).close();
+            }
+        }
+
+        /**
+         * index 번째 분할 데이터 생성
+         * List 는 subList, Map 은 keyIndexes 의 키 목록을 공유하는 구간 View 로 복사없이 생성 (읽기전용)
+         */
+        private Map<String, Object> createExtra(int index, Map<String, LazyRows> lazyRows,
+                                                Map<String, KeyIndex> keyIndexes) {
+            int startIdx = index * getSplitSize();
+            int endIdx = (index + 1) * getSplitSize();
+
+            Map<String, Object> extra = new HashMap<>();
+
+            for (String extraKey : extras.keySet()) {
+                Object oObj = extras.get(extraKey);
+                Object nObj = oObj;
+
+                if (lazyRows.containsKey(extraKey)) {
+                    nObj = lazyRows.get(extraKey).take(getSplitSize());
+                } else if (oObj instanceof List) {
+                    List<?> oList = (List<?>) oObj;
+
+                    if (startIdx < oList.size()) {
+                        nObj = Collections.unmodifiableList(oList.subList(startIdx, Math.min(endIdx, oList.size())));
+                    } else {
+                        nObj = Collections.EMPTY_LIST;
                     }
+                } else if (oObj instanceof Map) {
+                    Map<?, ?> oMap = (Map<?, ?>) oObj;
+
+                    if (startIdx < oMap.size()) {
+                        KeyIndex keyIndex = keyIndexes.get(extraKey);
+                        if (keyIndex == null) {
+                            keyIndex = new KeyIndex(oMap);
+                            keyIndexes.put(extraKey, keyIndex);
+                        }
 
-                    extra.put(extraKey, nObj);
+                        nObj = new MapWindow(oMap, keyIndex, startIdx, Math.min(endIdx, oMap.size()));
+                    } else {
+                        nObj = Collections.EMPTY_MAP;
+                    }
                 }
 
-                list.add(extra);
+                extra.put(extraKey, nObj);
             }
 
-            return list;
+            return extra;
+        }
+
+        /**
+         * 적재된 데이터 Map, List 형식의 분할 수
+         */
+        private int getCount() {
+            return (int) Math.ceil((double) getMaxSize() / (double) getSplitSize());
         }
 
         /**
@@ -446,6 +1336,223 @@ public class Excel2View extends AbstractUrlBasedView {
             return maxSize;
         }
 
+        /**
+         * 분할된 적재 데이터 Iterator
+         * 분할이 필요없으면 적재 데이터를 그대로 한번 반환
+         */
+        public class ExtrasIterator implements Iterator<Map<String, Object>> {
+
+            private final Map<String, LazyRows> lazyRows = new HashMap<>();
+
+            private final Map<String, KeyIndex> keyIndexes = new HashMap<>();
+
+            private final int count;
+
+            private int index;
+
+            private ExtrasIterator() {
+                if (extras != null) {
+                    for (Map.Entry<String, Object> entry : extras.entrySet()) {
+                        if (entry.getValue() instanceof Iterator)
+                            lazyRows.put(entry.getKey(), new LazyRows((Iterator<?>) entry.getValue()));
+                    }
+                }
+
+                count = getCount();
+            }
+
+            /**
+             * 단일파일 여부 (지연 조회 데이터는 최대 분할 크기 + 1 행까지 미리 읽음)
+             */
+            public boolean isSingle() {
+                if (1 < count)
+                    return false;
+
+                for (LazyRows rows : lazyRows.values()) {
+                    if (getSplitSize() < rows.fill(getSplitSize() + 1))
+                        return false;
+                }
+
+                return true;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (index == 0 || index < count)
+                    return true;
+
+                for (LazyRows rows : lazyRows.values()) {
+                    if (0 < rows.fill(1))
+                        return true;
+                }
+
+                return false;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                Map<String, Object> extra = lazyRows.isEmpty() && count <= 1 ? extras : createExtra(index, lazyRows, keyIndexes);
+                index++;
+
+                return extra;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+        }
+
+        /**
+         * 지연 조회 데이터 (분할 여부 확인을 위해 일부 행을 미리 읽어 보관)
+         */
+        private static class LazyRows {
+
+            private final Iterator<?> source;
+
+            private final Deque<Row> buffer = new ArrayDeque<>();
+
+            private LazyRows(Iterator<?> source) {
+                this.source = source;
+            }
+
+            private int fill(int size) {
+                while (buffer.size() < size && source.hasNext())
+                    buffer.add(new Row(source.next()));
+
+                return buffer.size();
+            }
+
+            private List<Object> take(int size) {
+                fill(size);
+
+                List<Object> rows = new ArrayList<>(Math.min(size, buffer.size()));
+                while (rows.size() < size && !buffer.isEmpty())
+                    rows.add(buffer.poll().value);
+
+                return rows;
+            }
+
+        }
+
+        /**
+         * Map 데이터의 키 목록 (분할 전체에서 한번만 생성)
+         */
+        private static class KeyIndex {
+
+            private final List<Object> keys;
+
+            /** 키 → 위치 (get 호출시 생성) */
+            private Map<Object, Integer> positions;
+
+            private KeyIndex(Map<?, ?> map) {
+                this.keys = new ArrayList<Object>(map.keySet());
+            }
+
+            private synchronized int indexOf(Object key) {
+                if (positions == null) {
+                    positions = new HashMap<>(keys.size() * 4 / 3 + 1);
+                    for (int i = 0; i < keys.size(); i++)
+                        positions.put(keys.get(i), i);
+                }
+
+                Integer position = positions.get(key);
+                return position == null ? -1 : position;
+            }
+
+        }
+
+        /**
+         * Map 데이터의 [from, to) 구간 View (입력순서 유지, 읽기전용)
+         */
+        private static class MapWindow extends AbstractMap<Object, Object> {
+
+            private final Map<?, ?> map;
+
+            private final KeyIndex keyIndex;
+
+            private final int from;
+
+            private final int to;
+
+            private MapWindow(Map<?, ?> map, KeyIndex keyIndex, int from, int to) {
+                this.map = map;
+                this.keyIndex = keyIndex;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                int position = keyIndex.indexOf(key);
+                return from <= position && position < to;
+            }
+
+            @Override
+            public Object get(Object key) {
+                return containsKey(key) ? map.get(key) : null;
+            }
+
+            @Override
+            public Set<Entry<Object, Object>> entrySet() {
+                return new AbstractSet<Entry<Object, Object>>() {
+                    @Override
+                    public int size() {
+                        return to - from;
+                    }
+
+                    @Override
+                    public Iterator<Entry<Object, Object>> iterator() {
+                        return new Iterator<Entry<Object, Object>>() {
+                            private int position = from;
+
+                            @Override
+                            public boolean hasNext() {
+                                return position < to;
+                            }
+
+                            @Override
+                            public Entry<Object, Object> next() {
+                                if (!hasNext())
+                                    throw new NoSuchElementException();
+
+                                Object key = keyIndex.keys.get(position++);
+                                return new SimpleImmutableEntry<>(key, (Object) map.get(key));
+                            }
+
+                            @Override
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+                };
+            }
+
+        }
+
+        /**
+         * ArrayDeque 는 null 을 허용하지 않으므로 행을 감싸서 보관
+         */
+        private static class Row {
+
+            private final Object value;
+
+            private Row(Object value) {
+                this.value = value;
+            }
+
+        }
+
     }
 
 }
@@ -3,18 +3,19 @@ package kr.qusi.spring.servlet.view.excel;
 import kr.qusi.spring.servlet.view.encoding.DefaultFilenameEncoder;
 import kr.qusi.spring.servlet.view.encoding.FilenameEncoder;
 import lombok.extern.slf4j.Slf4j;
-import net.sf.jxls.transformer.XLSTransformer;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.context.support.ServletContextResource;
 import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.FileNotFoundException;
 import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -47,6 +48,18 @@ public class ExcelView extends AbstractUrlBasedView {
 
     private FilenameEncoder filenameEncoder = new DefaultFilenameEncoder();
 
+    private TemplateCache templateCache;
+
+    private TemplateIndex templateIndex;
+
+    private ExportAdmissionController admissionController;
+
+    private ExportMetrics metrics;
+
+    private ExportEngine engine = new JxlsExportEngine();
+
+    private ExportEngineSelector engineSelector;
+
     public ExcelView() {
         setContentType(CONTENT_TYPE);
     }
@@ -78,19 +91,126 @@ public class ExcelView extends AbstractUrlBasedView {
     @Override
     protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request,
                                            HttpServletResponse response) throws Exception {
+        long lookupStart = System.nanoTime();
         Resource template = this.getTemplateResource(request);
-        String filename = this.getFilename(model, request);
+        Map<String, Object> beans = this.getExportBeans(model);
+        ExportEngine engine = this.getEngine(beans, template);
+        boolean jxls = engine instanceof JxlsExportEngine;
+
+        String filename = this.getFilename(model, template);
+        if (!jxls)
+            filename = StringUtils.stripFilenameExtension(filename) + engine.getExtension(template);
+
+        // 동시 생성 수 및 메모리 예산 확인
+        ExportAdmissionController.Permit permit = null;
+        if (this.admissionController != null) {
+            try {
+                long maxRows = jxls ? Long.MAX_VALUE : engine instanceof StreamingExportEngine
+                        ? ((StreamingExportEngine) engine).getWindowSize() : StreamingWorkbookWriter.DEFAULT_WINDOW_SIZE;
+                permit = this.admissionController.acquire(this.admissionController.estimate(beans, maxRows, 1));
+            } catch (ExportRejectedException e) {
+                this.admissionController.sendRejected(response, e);
+                return;
+            }
+        }
+
+        try {
+            this.renderExport(model, beans, template, engine, filename, lookupStart, request, response);
+        } finally {
+            if (permit != null)
+                permit.release();
+        }
+    }
+
+    /**
+     * 엑셀 생성 및 출력 (통계 수집 포함)
+     */
+    private void renderExport(Map<String, Object> model, Map<String, Object> beans, Resource template,
+                              ExportEngine engine, String filename, long lookupStart, HttpServletRequest request,
+                              HttpServletResponse response) throws Exception {
+        boolean jxls = engine instanceof JxlsExportEngine;
 
         prepareAttachmentFilename(request, response, filename);
+        if (!jxls)
+            response.setContentType(engine.getContentType(template));
+
+        ExportMetrics.Recorder recorder = null;
+        if (this.metrics != null) {
+            recorder = this.metrics.start(template);
+            recorder.addPhase(ExportMetrics.Phase.LOOKUP, lookupStart);
+        }
+
+        // jxls 는 템플릿에서 모델 전체를 참조할 수 있으므로 그대로 전달
+        ExportSource source = new ExportSource(template, jxls ? model : beans).setTemplateCache(this.templateCache);
+        CountingOutputStream out = null;
+        boolean failed = true;
+
+        try {
+            long start = System.nanoTime();
+            long rows;
+
+            // Flush byte array to servlet output stream.
+            out = new CountingOutputStream(response.getOutputStream());
 
-        XLSTransformer transformer = new XLSTransformer();
+            if (jxls) {
+                Workbook workbook = ((JxlsExportEngine) engine).transform(source);
+                if (recorder != null) {
+                    recorder.addPhase(ExportMetrics.Phase.TRANSFORM, start);
+                    start = System.nanoTime();
+                }
 
-        Workbook workbook = transformer.transformXLS(template.getInputStream(), model);
+                workbook.write(out);
+                rows = ExportMetrics.countRows(beans);
+            } else {
+                rows = engine.export(source, out);
+            }
+            out.flush();
+
+            if (recorder != null) {
+                recorder.addPhase(ExportMetrics.Phase.WRITE, start);
+                recorder.addRows(rows);
+                recorder.addPart();
+            }
+            failed = false;
+        } finally {
+            if (recorder != null)
+                this.metrics.finish(recorder, out != null ? out.getByteCount() : 0, failed);
+        }
+    }
+
+    /**
+     * 생성 엔진 선택 (엔진 선택기 지정시 예상 행 수로 선택)
+     *
+     * @param beans    적재 데이터 ({@link #getExportBeans(Map)})
+     * @param template
+     * @return
+     */
+    protected ExportEngine getEngine(Map<String, Object> beans, Resource template) {
+        if (this.engineSelector != null)
+            return this.engineSelector.select(template, ExportEngineSelector.estimateRows(beans));
+
+        return this.engine;
+    }
+
+    /**
+     * 모델 중 적재 데이터 (검증결과(BindingResult), 파일명 제외)
+     * CSV 엔진은 행 데이터를 하나만 허용하므로 모델 전체를 전달하지 않음
+     *
+     * @param model
+     * @return
+     */
+    protected Map<String, Object> getExportBeans(Map<String, Object> model) {
+        Map<String, Object> beans = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> entry : model.entrySet()) {
+            if (entry.getKey().startsWith(BindingResult.MODEL_KEY_PREFIX) || entry.getValue() instanceof BindingResult
+                    || entry.getKey().equals(this.getFilenameKey()))
+                continue;
+
+            beans.put(entry.getKey(), entry.getValue());
+        }
 
-        // Flush byte array to servlet output stream.
-        ServletOutputStream out = response.getOutputStream();
-        workbook.write(out);
-        out.flush();
+        return beans;
     }
 
     public String getFilenameKey() {
@@ -109,7 +229,18 @@ public class ExcelView extends AbstractUrlBasedView {
      * @throws FileNotFoundException
      */
     public String getFilename(Map<String, Object> model, HttpServletRequest request) throws FileNotFoundException {
-        String filename = this.getTemplateResource(request).getFilename();
+        return this.getFilename(model, this.getTemplateResource(request));
+    }
+
+    /**
+     * 다운로드 파일명 조회
+     *
+     * @param model
+     * @param template
+     * @return
+     */
+    protected String getFilename(Map<String, Object> model, Resource template) {
+        String filename = template.getFilename();
         String extension = StringUtils.getFilenameExtension(filename);
 
         if (model.containsKey(this.getFilenameKey())) {
@@ -132,16 +263,15 @@ public class ExcelView extends AbstractUrlBasedView {
         Resource template;
 
         // xls template
-        template = new ServletContextResource(request.getServletContext(), this.getUrl() + "." + DEFAULT_XLS_EXTENSION);
-        if (template.exists()) {
+        template = this.findTemplate(request, this.getUrl() + "." + DEFAULT_XLS_EXTENSION);
+        if (template != null) {
             log.debug("Excel template: {}", template);
             return template;
         }
 
         // xlsx template
-        template = new ServletContextResource(request.getServletContext(),
-                this.getUrl() + "." + DEFAULT_XLSX_EXTENSION);
-        if (template.exists()) {
+        template = this.findTemplate(request, this.getUrl() + "." + DEFAULT_XLSX_EXTENSION);
+        if (template != null) {
             log.debug("Excel template: {}", template);
             return template;
         }
@@ -149,8 +279,71 @@ public class ExcelView extends AbstractUrlBasedView {
         throw new FileNotFoundException("Excel template not found");
     }
 
+    /**
+     * 템플릿 조회 (색인 사용시 파일시스템을 확인하지 않음)
+     *
+     * @param request
+     * @param path
+     * @return 템플릿 or null
+     */
+    protected Resource findTemplate(HttpServletRequest request, String path) {
+        if (this.templateIndex != null)
+            return this.templateIndex.find(path);
+
+        Resource template = new ServletContextResource(request.getServletContext(), path);
+        return template.exists() ? template : null;
+    }
+
     public void setFilenameEncoder(FilenameEncoder filenameEncoder) {
         this.filenameEncoder = filenameEncoder;
     }
 
-}
\ No newline at end of file
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    public void setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public TemplateIndex getTemplateIndex() {
+        return templateIndex;
+    }
+
+    public void setTemplateIndex(TemplateIndex templateIndex) {
+        this.templateIndex = templateIndex;
+    }
+
+    public ExportAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public void setAdmissionController(ExportAdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public ExportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(ExportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public ExportEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(ExportEngine engine) {
+        this.engine = engine;
+    }
+
+    public ExportEngineSelector getEngineSelector() {
+        return engineSelector;
+    }
+
+    public void setEngineSelector(ExportEngineSelector engineSelector) {
+        this.engineSelector = engineSelector;
+    }
+
+}
@@ -0,0 +1,288 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * 엑셀 생성 동시 실행 제한 및 메모리 예산 관리
+ * 동시 생성 수를 제한하고 초과 요청은 일정시간(queueTimeout) 대기시키며,
+ * 요청별 예상 메모리(행 × 열 × 셀당 크기)가 남은 예산을 초과하면 GC 부하를 일으키기 전에 거절함 (503 + Retry-After)
+ * 여러 뷰(ExcelView, Excel2View)가 하나의 인스턴스를 공유해야 함
+ */
+@Slf4j
+public class ExportAdmissionController {
+
+    /** 동시 생성 최대 수 기본값 */
+    public static final int DEFAULT_MAX_CONCURRENT = 2;
+
+    /** 대기시간 기본값 (30초) */
+    public static final long DEFAULT_QUEUE_TIMEOUT = 30 * 1000L;
+
+    /** 셀당 예상 메모리 기본값 (POI 셀 + 스타일 참조 + 값) */
+    public static final long DEFAULT_BYTES_PER_CELL = 500;
+
+    /** 열 수를 알 수 없는 경우 기본값 */
+    public static final int DEFAULT_COLUMNS = 10;
+
+    /** 거절시 재시도 안내 기본값 (초) */
+    public static final int DEFAULT_RETRY_AFTER = 30;
+
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    private final AtomicLong admittedCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+
+    private long queueTimeout = DEFAULT_QUEUE_TIMEOUT;
+
+    /** 전체 메모리 예산 (기본값: 최대 Heap 의 1/2) */
+    private long heapBudget = Runtime.getRuntime().maxMemory() / 2;
+
+    private long bytesPerCell = DEFAULT_BYTES_PER_CELL;
+
+    private int retryAfter = DEFAULT_RETRY_AFTER;
+
+    private volatile Semaphore permits;
+
+    /**
+     * 생성 허가 (동시 생성 수 초과시 queueTimeout 동안 대기)
+     *
+     * @param estimatedBytes 예상 메모리
+     * @return 허가 (생성 완료 후 반드시 {@link Permit#release()})
+     * @throws ExportRejectedException 대기시간 초과 또는 메모리 예산 초과
+     */
+    public Permit acquire(long estimatedBytes) throws ExportRejectedException {
+        if (heapBudget < estimatedBytes)
+            throw reject("Export exceeds heap budget (" + estimatedBytes + " > " + heapBudget + " bytes)");
+
+        Semaphore semaphore = getPermits();
+
+        try {
+            if (!semaphore.tryAcquire(queueTimeout, TimeUnit.MILLISECONDS))
+                throw reject("Too many concurrent exports (" + maxConcurrent + ")");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("Interrupted while waiting for export");
+        }
+
+        long reserved;
+        do {
+            reserved = reservedBytes.get();
+            if (heapBudget < reserved + estimatedBytes) {
+                semaphore.release();
+                throw reject("Export heap budget exhausted (" + reserved + " + " + estimatedBytes + " > " + heapBudget + " bytes)");
+            }
+        } while (!reservedBytes.compareAndSet(reserved, reserved + estimatedBytes));
+
+        admittedCount.incrementAndGet();
+        log.debug("Export admitted: {} bytes (reserved {} bytes)", estimatedBytes, reserved + estimatedBytes);
+
+        return new Permit(semaphore, estimatedBytes);
+    }
+
+    private ExportRejectedException reject(String message) {
+        rejectedCount.incrementAndGet();
+        log.warn(message);
+
+        return new ExportRejectedException(message, retryAfter);
+    }
+
+    /**
+     * 거절 응답 (503 + Retry-After)
+     *
+     * @param response
+     * @param e
+     * @throws IOException
+     */
+    public void sendRejected(HttpServletResponse response, ExportRejectedException e) throws IOException {
+        response.setHeader("Retry-After", String.valueOf(e.getRetryAfter()));
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    /**
+     * 예상 메모리 계산
+     * 적재 데이터 중 List, Map, 배열의 크기를 행 수로, 첫 행의 항목(Map 키, Bean 속성) 수를 열 수로 사용
+     *
+     * @param beans    적재 데이터
+     * @param maxRows  한번에 메모리에 유지되는 최대 행 수 (분할 크기, 스트리밍 윈도우 등, Iterator 는 이 값으로 간주)
+     * @param inFlight 동시에 생성되는 파일 수
+     * @return 예상 메모리
+     */
+    public long estimate(Map<String, ?> beans, long maxRows, int inFlight) {
+        long rows = 0;
+        int columns = 0;
+
+        if (beans != null) {
+            for (Object value : beans.values()) {
+                Object first = null;
+
+                if (value instanceof Collection) {
+                    rows += ((Collection<?>) value).size();
+                    first = first(((Collection<?>) value).iterator());
+                } else if (value instanceof Map) {
+                    rows += ((Map<?, ?>) value).size();
+                    first = first(((Map<?, ?>) value).values().iterator());
+                } else if (value instanceof Object[]) {
+                    rows += ((Object[]) value).length;
+                    first = ((Object[]) value).length > 0 ? ((Object[]) value)[0] : null;
+                } else if (value instanceof Iterator) {
+                    rows += maxRows;
+                }
+
+                columns = Math.max(columns, columns(first));
+            }
+        }
+
+        if (columns == 0)
+            columns = DEFAULT_COLUMNS;
+
+        return Math.min(rows, maxRows) * columns * bytesPerCell * Math.max(inFlight, 1);
+    }
+
+    private Object first(Iterator<?> it) {
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private int columns(Object row) {
+        if (row == null)
+            return 0;
+        if (row instanceof Map)
+            return ((Map<?, ?>) row).size();
+
+        PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(row);
+        return descriptors != null ? descriptors.length : 0;
+    }
+
+    private Semaphore getPermits() {
+        Semaphore semaphore = permits;
+        if (semaphore == null) {
+            synchronized (this) {
+                if (permits == null)
+                    permits = new Semaphore(maxConcurrent, true);
+                semaphore = permits;
+            }
+        }
+
+        return semaphore;
+    }
+
+    /**
+     * 생성중인 수
+     */
+    public int getActiveCount() {
+        Semaphore semaphore = permits;
+        return semaphore != null ? maxConcurrent - semaphore.availablePermits() : 0;
+    }
+
+    /**
+     * 대기중인 수 (추정치)
+     */
+    public int getQueueLength() {
+        Semaphore semaphore = permits;
+        return semaphore != null ? semaphore.getQueueLength() : 0;
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    public long getAdmittedCount() {
+        return admittedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 동시 생성 최대 수 (사용 전에만 변경 가능)
+     */
+    public void setMaxConcurrent(int maxConcurrent) {
+        if (permits != null)
+            throw new IllegalStateException("ExportAdmissionController is already in use");
+
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public long getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(long queueTimeout) {
+        this.queueTimeout = queueTimeout;
+    }
+
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    public void setHeapBudget(long heapBudget) {
+        this.heapBudget = heapBudget;
+    }
+
+    public long getBytesPerCell() {
+        return bytesPerCell;
+    }
+
+    public void setBytesPerCell(long bytesPerCell) {
+        this.bytesPerCell = bytesPerCell;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(int retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 생성 허가
+     */
+    public class Permit {
+
+        private final Semaphore semaphore;
+
+        private final long bytes;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore, long bytes) {
+            this.semaphore = semaphore;
+            this.bytes = bytes;
+        }
+
+        /**
+         * 허가 반납 (중복 호출 무시)
+         */
+        public void release() {
+            if (!released.compareAndSet(false, true))
+                return;
+
+            reservedBytes.addAndGet(-bytes);
+            semaphore.release();
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.OutputStream;
+import org.springframework.core.io.Resource;
+
+/**
+ * 엑셀(내보내기) 생성 엔진
+ * ExcelView, Excel2View 가 공유하며 요청마다 예상 크기에 따라 선택됨 ({@link ExportEngineSelector})
+ *
+ * @see JxlsExportEngine
+ * @see StreamingExportEngine
+ * @see CsvExportEngine
+ */
+public interface ExportEngine {
+
+    /**
+     * 템플릿 지원여부
+     *
+     * @param template 템플릿
+     * @return
+     */
+    boolean supports(Resource template);
+
+    /**
+     * 생성 파일 확장자 (예: .xlsx)
+     *
+     * @param template 템플릿
+     * @return
+     */
+    String getExtension(Resource template);
+
+    /**
+     * 생성 파일 ContentType
+     *
+     * @param template 템플릿
+     * @return
+     */
+    String getContentType(Resource template);
+
+    /**
+     * 생성 후 출력
+     *
+     * @param source 템플릿 및 적재 데이터
+     * @param os     출력 Stream (닫지 않음)
+     * @return 출력된 행 수
+     * @throws Exception
+     */
+    long export(ExportSource source, OutputStream os) throws Exception;
+
+}
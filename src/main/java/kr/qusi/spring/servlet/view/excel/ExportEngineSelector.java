@@ -0,0 +1,94 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+/**
+ * 예상 크기에 따른 생성 엔진 선택
+ * 기준 행 수 이하는 템플릿 기능을 모두 지원하는 기본 엔진(jxls)을, 초과하거나 크기를 알 수 없는 경우(Iterator 등)
+ * 템플릿을 지원하는 대용량 엔진(스트리밍, CSV 순)을 사용하며, 지원하는 대용량 엔진이 없으면 기본 엔진을 사용
+ */
+@Slf4j
+public class ExportEngineSelector {
+
+    /** 기준 행 수 기본값 */
+    public static final long DEFAULT_THRESHOLD = 50000;
+
+    private ExportEngine defaultEngine = new JxlsExportEngine();
+
+    private List<ExportEngine> largeEngines = Collections.<ExportEngine>singletonList(new StreamingExportEngine());
+
+    private long threshold = DEFAULT_THRESHOLD;
+
+    /**
+     * 엔진 선택
+     *
+     * @param template      템플릿
+     * @param estimatedRows 예상 행 수 (-1: 알 수 없음)
+     * @return 엔진
+     */
+    public ExportEngine select(Resource template, long estimatedRows) {
+        if (0 <= estimatedRows && estimatedRows <= threshold)
+            return defaultEngine;
+
+        for (ExportEngine engine : largeEngines) {
+            if (engine.supports(template)) {
+                log.debug("Large export engine: {} ({} rows)", engine.getClass().getSimpleName(), estimatedRows);
+                return engine;
+            }
+        }
+
+        return defaultEngine;
+    }
+
+    /**
+     * 예상 행 수 (적재 데이터 중 List, Map, 배열 크기의 합)
+     *
+     * @param beans 적재 데이터
+     * @return 예상 행 수 (-1: Iterator 등 알 수 없음)
+     */
+    public static long estimateRows(Map<String, ?> beans) {
+        if (beans == null)
+            return 0;
+
+        for (Object value : beans.values()) {
+            if (value instanceof Iterator)
+                return -1;
+        }
+
+        return ExportMetrics.countRows(beans);
+    }
+
+    public ExportEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    public void setDefaultEngine(ExportEngine defaultEngine) {
+        this.defaultEngine = defaultEngine;
+    }
+
+    public List<ExportEngine> getLargeEngines() {
+        return largeEngines;
+    }
+
+    /**
+     * 대용량 엔진 (순서대로 템플릿 지원여부 확인)
+     */
+    public void setLargeEngines(List<ExportEngine> largeEngines) {
+        this.largeEngines = new ArrayList<>(largeEngines);
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+}
@@ -0,0 +1,176 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.File;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 백그라운드 엑셀 생성 작업
+ * 상태/진행률은 작업 Thread 에서 갱신되며 요청 Thread 에서 조회(polling)함
+ * 상태는 정해진 순서로만 바뀜 (QUEUED → RUNNING → DONE/FAILED, 종료 전 언제든 CANCELLED), 먼저 바꾼 쪽이 우선
+ *
+ * @see ExportJobManager
+ */
+public class ExportJob {
+
+    public enum Status {
+        /** 대기 */
+        QUEUED,
+        /** 생성중 */
+        RUNNING,
+        /** 완료 (다운로드 가능) */
+        DONE,
+        /** 실패 */
+        FAILED,
+        /** 취소 */
+        CANCELLED
+    }
+
+    private final String id;
+
+    /** 등록한 사용자 (Principal 이름 또는 세션 ID) */
+    private final String owner;
+
+    private final long createdAt = System.currentTimeMillis();
+
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+
+    private volatile long startedAt;
+
+    private volatile long finishedAt;
+
+    /** 지금까지 출력된 크기 */
+    private volatile long bytesWritten;
+
+    /** 생성된 파일 (spool 폴더) */
+    private volatile File file;
+
+    /** 다운로드 파일명 */
+    private volatile String filename;
+
+    private volatile String error;
+
+    private volatile Future<?> future;
+
+    ExportJob(String id, String owner) {
+        this.id = id;
+        this.owner = owner;
+    }
+
+    /**
+     * 종료 여부 (완료, 실패, 취소)
+     */
+    public boolean isFinished() {
+        Status current = status.get();
+        return current == Status.DONE || current == Status.FAILED || current == Status.CANCELLED;
+    }
+
+    /**
+     * 등록한 사용자 여부
+     *
+     * @param owner Principal 이름 또는 세션 ID
+     */
+    public boolean isOwner(String owner) {
+        return this.owner != null && this.owner.equals(owner);
+    }
+
+    /**
+     * 경과시간 (ms)
+     */
+    public long getElapsedTime() {
+        if (startedAt == 0)
+            return 0;
+
+        return (finishedAt != 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    /**
+     * @return false: 이미 취소됨
+     */
+    boolean start() {
+        // 취소시 Bundle 정리 주체 판단에 사용하므로 상태 변경 전에 기록
+        startedAt = System.currentTimeMillis();
+        return status.compareAndSet(Status.QUEUED, Status.RUNNING);
+    }
+
+    /**
+     * @return false: 이미 취소됨 (파일은 호출한 쪽에서 삭제)
+     */
+    boolean done(File file, String filename) {
+        // 완료 상태에서 바로 조회되도록 상태 변경 전에 기록 (취소된 경우 다운로드되지 않음)
+        this.file = file;
+        this.filename = filename;
+        finishedAt = System.currentTimeMillis();
+        return status.compareAndSet(Status.RUNNING, Status.DONE);
+    }
+
+    /**
+     * @return false: 이미 취소됨
+     */
+    boolean fail(Throwable e) {
+        error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        finishedAt = System.currentTimeMillis();
+        return status.compareAndSet(Status.RUNNING, Status.FAILED);
+    }
+
+    /**
+     * @return false: 이미 종료됨
+     */
+    boolean cancel() {
+        if (isFinished())
+            return false;
+
+        finishedAt = System.currentTimeMillis();
+        return status.compareAndSet(Status.QUEUED, Status.CANCELLED)
+                || status.compareAndSet(Status.RUNNING, Status.CANCELLED);
+    }
+
+    void setBytesWritten(long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+}
@@ -0,0 +1,453 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import kr.qusi.spring.servlet.view.DownloadView;
+import kr.qusi.spring.servlet.view.excel.Excel2View.Bundle;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+/**
+ * 백그라운드 엑셀 생성 작업 관리
+ * 요청 Thread 에서는 작업을 등록하고 작업 ID 만 바로 반환하며, 엑셀은 작업 Thread Pool 에서 spool 폴더에 생성됨
+ * 완료된 파일은 {@link #getDownloadView(String, HttpServletRequest)} 로 다운로드하며, 보관기간(ttl)이 지나면 삭제됨
+ * 작업은 등록한 사용자(Principal 이름, 없으면 세션 ID)만 조회/다운로드/취소할 수 있음
+ * 뷰에 지정된 {@link ExportAdmissionController} 는 백그라운드 작업에도 적용됨
+ *
+ * <pre>
+ * ExportJob job = exportJobManager.submit("excel/ledger", bundle, request);
+ * ...
+ * exportJobManager.getJob(id, request).getStatus();
+ * ...
+ * return exportJobManager.getDownloadView(id, request);
+ * </pre>
+ */
+@Slf4j
+public class ExportJobManager implements InitializingBean, DisposableBean {
+
+    /** 작업 Thread 수 기본값 */
+    public static final int DEFAULT_POOL_SIZE = 2;
+
+    /** 대기 작업 최대 수 기본값 */
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    /** 완료 파일 보관기간 기본값 (1시간) */
+    public static final long DEFAULT_TTL = 60 * 60 * 1000L;
+
+    /** 정리 주기 기본값 (1분) */
+    public static final long DEFAULT_CLEANUP_INTERVAL = 60 * 1000L;
+
+    private static final String EXTENSION_TEMP = ".tmp";
+
+    private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /** 생성 파일 보관 폴더 */
+    private File spoolDirectory = new File(System.getProperty("java.io.tmpdir"), "export-jobs");
+
+    private int poolSize = DEFAULT_POOL_SIZE;
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    private long ttl = DEFAULT_TTL;
+
+    private long cleanupInterval = DEFAULT_CLEANUP_INTERVAL;
+
+    /** 뷰 이름으로 작업 등록시 사용 (Excel2ViewResolver) */
+    private ViewResolver viewResolver;
+
+    private ThreadPoolExecutor executor;
+
+    private ScheduledExecutorService cleaner;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        FileUtils.forceMkdir(spoolDirectory);
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new CustomizableThreadFactory("export-job-"));
+
+        CustomizableThreadFactory cleanerFactory = new CustomizableThreadFactory("export-job-cleaner-");
+        cleanerFactory.setDaemon(true);
+        cleaner = Executors.newSingleThreadScheduledExecutor(cleanerFactory);
+        cleaner.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    cleanup();
+                } catch (Exception e) {
+                    log.warn("Export job cleanup failed", e);
+                }
+            }
+        }, 0, cleanupInterval, TimeUnit.MILLISECONDS);
+
+        log.debug("Export spool: {}", spoolDirectory);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (cleaner != null)
+            cleaner.shutdownNow();
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    /**
+     * 작업 등록 (뷰 이름)
+     *
+     * @param viewName Excel2View 뷰 이름
+     * @param bundle   적재 데이터
+     * @param request  요청 (템플릿 조회 및 등록한 사용자 기록에 사용)
+     * @return 작업
+     * @throws Exception 뷰/템플릿 없음, 대기 작업 초과 ({@link TaskRejectedException})
+     */
+    public ExportJob submit(String viewName, Bundle bundle, HttpServletRequest request) throws Exception {
+        Assert.state(viewResolver != null, "ViewResolver is required");
+
+        Locale locale = request.getLocale();
+        View view = viewResolver.resolveViewName(viewName, locale != null ? locale : Locale.getDefault());
+        if (!(view instanceof Excel2View))
+            throw new IllegalArgumentException("Excel2View not found: " + viewName);
+
+        return submit((Excel2View) view, bundle, request);
+    }
+
+    /**
+     * 작업 등록
+     * 템플릿과 등록한 사용자는 요청 Thread 에서 미리 조회하며, 이후 요청 객체는 사용하지 않음
+     *
+     * @param view    엑셀 생성뷰
+     * @param bundle  적재 데이터 (작업 완료 후 닫힘)
+     * @param request 요청 (템플릿 조회 및 등록한 사용자 기록에 사용)
+     * @return 작업
+     * @throws FileNotFoundException 템플릿 없음
+     * @throws TaskRejectedException 대기 작업 초과
+     */
+    public ExportJob submit(final Excel2View view, final Bundle bundle, HttpServletRequest request)
+            throws FileNotFoundException {
+        Assert.state(executor != null, "ExportJobManager is not initialized");
+
+        final Resource template = view.getTemplate(request, bundle);
+        final ExportJob job = new ExportJob(UUID.randomUUID().toString().replace("-", ""), getOwner(request));
+
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            @Override
+            public void run() {
+                execute(job, view, bundle, template);
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                // 대기중 취소된 경우 지연 조회 데이터 (Cursor 등) 정리
+                // 생성을 시작한 경우 작업 Thread 가 읽는 중이므로 execute 에서 정리
+                if (isCancelled() && job.getStartedAt() == 0)
+                    IOUtils.closeQuietly(bundle);
+            }
+        };
+
+        job.setFuture(task);
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            IOUtils.closeQuietly(bundle);
+            throw new TaskRejectedException("Export queue is full (" + queueCapacity + ")", e);
+        }
+
+        log.debug("Export job submitted: {} ({})", job.getId(), template);
+        return job;
+    }
+
+    private void execute(ExportJob job, Excel2View view, Bundle bundle, Resource template) {
+        File temp = new File(spoolDirectory, job.getId() + EXTENSION_TEMP);
+        OutputStream os = null;
+
+        // 대기중 취소됨
+        if (!job.start()) {
+            IOUtils.closeQuietly(bundle);
+            return;
+        }
+
+        try {
+            os = new ProgressOutputStream(new BufferedOutputStream(new FileOutputStream(temp)), job);
+            String filename = view.export(bundle, template, os);
+            os.close();
+
+            File file = new File(spoolDirectory, job.getId() + "." + FilenameUtils.getExtension(filename));
+            if (!temp.renameTo(file))
+                throw new IOException("Cannot rename " + temp + " to " + file);
+
+            // 생성 완료 직후 취소된 경우 다운로드되지 않도록 파일 삭제
+            if (!job.done(file, filename)) {
+                FileUtils.deleteQuietly(file);
+                log.debug("Export job cancelled: {}", job.getId());
+                return;
+            }
+
+            log.debug("Export job done: {} ({} bytes, {} ms)", job.getId(), job.getBytesWritten(), job.getElapsedTime());
+        } catch (Exception e) {
+            IOUtils.closeQuietly(os);
+            FileUtils.deleteQuietly(temp);
+
+            if (job.fail(e))
+                log.warn("Export job failed: " + job.getId(), e);
+        } finally {
+            IOUtils.closeQuietly(bundle);
+        }
+    }
+
+    /**
+     * 작업 조회 (관리용, 등록한 사용자 확인 없음)
+     *
+     * @param id 작업 ID
+     * @return 작업 or null (없거나 만료됨)
+     */
+    public ExportJob getJob(String id) {
+        return id != null ? jobs.get(id) : null;
+    }
+
+    /**
+     * 요청한 사용자가 등록한 작업 조회
+     *
+     * @param id      작업 ID
+     * @param request 요청
+     * @return 작업 or null (없거나 만료됨, 다른 사용자의 작업)
+     */
+    public ExportJob getJob(String id, HttpServletRequest request) {
+        ExportJob job = getJob(id);
+        if (job == null)
+            return null;
+
+        if (!job.isOwner(getOwner(request))) {
+            log.warn("Export job owner mismatch: {}", id);
+            return null;
+        }
+
+        return job;
+    }
+
+    public Collection<ExportJob> getJobs() {
+        return Collections.unmodifiableCollection(jobs.values());
+    }
+
+    /**
+     * 완료된 작업의 다운로드 뷰
+     *
+     * @param id      작업 ID
+     * @param request 요청
+     * @return 다운로드 뷰 or null (없거나 완료되지 않음, 다른 사용자의 작업)
+     */
+    public DownloadView getDownloadView(String id, HttpServletRequest request) {
+        ExportJob job = getJob(id, request);
+        if (job == null || job.getStatus() != ExportJob.Status.DONE)
+            return null;
+
+        return new DownloadView(job.getFile(), job.getFilename(), getContentType(job.getFilename()));
+    }
+
+    /**
+     * 작업 취소 (관리용, 등록한 사용자 확인 없음)
+     * 생성중인 경우 중단하고 파일 삭제
+     *
+     * @param id 작업 ID
+     * @return 취소 여부 (false: 없거나 이미 종료됨)
+     */
+    public boolean cancel(String id) {
+        return cancel(getJob(id));
+    }
+
+    /**
+     * 요청한 사용자가 등록한 작업 취소
+     *
+     * @param id      작업 ID
+     * @param request 요청
+     * @return 취소 여부 (false: 없거나 이미 종료됨, 다른 사용자의 작업)
+     */
+    public boolean cancel(String id, HttpServletRequest request) {
+        return cancel(getJob(id, request));
+    }
+
+    private boolean cancel(ExportJob job) {
+        if (job == null || !job.cancel())
+            return false;
+
+        job.getFuture().cancel(true);
+        if (job.getFuture() instanceof Runnable)
+            executor.remove((Runnable) job.getFuture());
+
+        return true;
+    }
+
+    /**
+     * 보관기간이 지난 작업 및 파일 삭제
+     * 작업에 속하지 않는 파일(재시작 전 생성 등)도 보관기간이 지나면 삭제
+     */
+    public void cleanup() {
+        long expiredAt = System.currentTimeMillis() - ttl;
+        Set<String> tracked = new HashSet<>();
+
+        for (ExportJob job : jobs.values()) {
+            if (job.isFinished() && job.getFinishedAt() < expiredAt) {
+                jobs.remove(job.getId());
+                if (job.getFile() != null)
+                    FileUtils.deleteQuietly(job.getFile());
+
+                log.debug("Export job expired: {}", job.getId());
+                continue;
+            }
+
+            tracked.add(job.getId());
+        }
+
+        File[] files = spoolDirectory.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            if (!tracked.contains(FilenameUtils.getBaseName(file.getName())) && file.lastModified() < expiredAt)
+                FileUtils.deleteQuietly(file);
+        }
+    }
+
+    /**
+     * 등록한 사용자 (Principal 이름, 없으면 세션 ID)
+     *
+     * @param request
+     * @return
+     */
+    protected String getOwner(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null)
+            return "principal:" + principal.getName();
+
+        return "session:" + request.getSession().getId();
+    }
+
+    protected String getContentType(String filename) {
+        String extension = "." + FilenameUtils.getExtension(filename).toLowerCase();
+        if (Excel2View.EXTENSION_XLSX.equals(extension))
+            return Excel2View.CONTENT_TYPE_XLSX;
+        if (Excel2View.EXTENSION_ZIP.equals(extension))
+            return Excel2View.CONTENT_TYPE_ZIP;
+
+        return Excel2View.CONTENT_TYPE_XLS;
+    }
+
+    /**
+     * 대기중인 작업 수
+     */
+    public int getQueueSize() {
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+
+    /**
+     * 생성중인 작업 수
+     */
+    public int getActiveCount() {
+        return executor != null ? executor.getActiveCount() : 0;
+    }
+
+    public File getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    public void setSpoolDirectory(File spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getCleanupInterval() {
+        return cleanupInterval;
+    }
+
+    public void setCleanupInterval(long cleanupInterval) {
+        this.cleanupInterval = cleanupInterval;
+    }
+
+    public ViewResolver getViewResolver() {
+        return viewResolver;
+    }
+
+    public void setViewResolver(ViewResolver viewResolver) {
+        this.viewResolver = viewResolver;
+    }
+
+    /**
+     * 출력 크기를 작업 진행률로 갱신
+     */
+    private static class ProgressOutputStream extends ProxyOutputStream {
+
+        private final ExportJob job;
+
+        private long count;
+
+        private ProgressOutputStream(OutputStream out, ExportJob job) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        protected void afterWrite(int n) throws IOException {
+            count += n;
+            job.setBytesWritten(count);
+        }
+
+    }
+
+}
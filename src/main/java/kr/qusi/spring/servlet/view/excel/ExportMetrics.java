@@ -0,0 +1,309 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.web.context.support.ServletContextResource;
+
+/**
+ * 엑셀 생성 통계 (템플릿별 행 수, 출력 크기, 분할 수, 단계별 시간, 할당 메모리)
+ * 렌더링마다 {@link Recorder} 로 수집하여 템플릿별 lock-free 히스토그램에 누적하며 MXBean 으로 노출함
+ * 여러 뷰(ExcelView, Excel2View)가 하나의 인스턴스를 공유해야 함
+ */
+@Slf4j
+public class ExportMetrics implements ExportMetricsMXBean, InitializingBean, DisposableBean {
+
+    /** MBean 이름 기본값 */
+    public static final String DEFAULT_OBJECT_NAME = "kr.qusi.spring:type=ExportMetrics";
+
+    /**
+     * 생성 단계
+     */
+    public enum Phase {
+        /** 템플릿 조회 */
+        LOOKUP,
+        /** 템플릿 변환 */
+        TRANSFORM,
+        /** 엑셀 출력 */
+        WRITE,
+        /** zip 압축 */
+        ZIP
+    }
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+    private final ConcurrentMap<String, TemplateMetrics> templates = new ConcurrentHashMap<>();
+
+    private String objectName = DEFAULT_OBJECT_NAME;
+
+    /** 시작시 플랫폼 MBeanServer 등록여부 */
+    private boolean registerMBean = true;
+
+    private ObjectName registeredName;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!registerMBean)
+            return;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(objectName);
+        if (server.isRegistered(name)) {
+            log.warn("MBean already registered: {}", name);
+            return;
+        }
+
+        server.registerMBean(this, name);
+        registeredName = name;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (registeredName != null)
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        registeredName = null;
+    }
+
+    /**
+     * 수집 시작
+     *
+     * @param template 템플릿
+     * @return 수집기
+     */
+    public Recorder start(Resource template) {
+        return new Recorder(getName(template));
+    }
+
+    /**
+     * 수집 종료 및 누적
+     *
+     * @param recorder 수집기
+     * @param bytes    출력 크기
+     * @param failed   실패 여부
+     */
+    public void finish(Recorder recorder, long bytes, boolean failed) {
+        recorder.addAllocatedBytes(allocatedBytes() - recorder.allocatedAtStart);
+
+        TemplateMetrics metrics = templates.get(recorder.template);
+        if (metrics == null) {
+            TemplateMetrics created = new TemplateMetrics();
+            metrics = templates.putIfAbsent(recorder.template, created);
+            if (metrics == null)
+                metrics = created;
+        }
+
+        metrics.record(recorder, bytes, failed);
+    }
+
+    @Override
+    public Map<String, ExportStatistics> getStatistics() {
+        Map<String, ExportStatistics> statistics = new TreeMap<>();
+        for (Map.Entry<String, TemplateMetrics> entry : templates.entrySet())
+            statistics.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+
+        return statistics;
+    }
+
+    public ExportStatistics getStatistics(String template) {
+        TemplateMetrics metrics = templates.get(template);
+        return metrics != null ? metrics.snapshot(template) : null;
+    }
+
+    @Override
+    public void reset() {
+        templates.clear();
+    }
+
+    /**
+     * 행 수 계산 (적재 데이터 중 List, Map, 배열의 크기 합)
+     *
+     * @param beans
+     * @return
+     */
+    public static long countRows(Map<String, ?> beans) {
+        if (beans == null)
+            return 0;
+
+        return countRows(beans.values());
+    }
+
+    private static long countRows(Collection<?> values) {
+        long rows = 0;
+        for (Object value : values) {
+            if (value instanceof Collection)
+                rows += ((Collection<?>) value).size();
+            else if (value instanceof Map)
+                rows += ((Map<?, ?>) value).size();
+            else if (value instanceof Object[])
+                rows += ((Object[]) value).length;
+        }
+
+        return rows;
+    }
+
+    /**
+     * 현재 Thread 의 누적 할당 메모리 (미지원 JVM 은 0)
+     */
+    static long allocatedBytes() {
+        if (!ALLOCATION_SUPPORTED)
+            return 0;
+
+        return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static boolean isAllocationSupported() {
+        try {
+            if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean))
+                return false;
+
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (!bean.isThreadAllocatedMemorySupported())
+                return false;
+            if (!bean.isThreadAllocatedMemoryEnabled())
+                bean.setThreadAllocatedMemoryEnabled(true);
+
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private String getName(Resource template) {
+        if (template instanceof ServletContextResource)
+            return ((ServletContextResource) template).getPath();
+
+        return template.getFilename() != null ? template.getFilename() : template.getDescription();
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public boolean isRegisterMBean() {
+        return registerMBean;
+    }
+
+    public void setRegisterMBean(boolean registerMBean) {
+        this.registerMBean = registerMBean;
+    }
+
+    /**
+     * 렌더링 1회 수집기
+     * 분할 파일 병렬 생성시 여러 Thread 에서 동시에 기록됨
+     */
+    public static class Recorder {
+
+        private final String template;
+
+        private final long startedAt = System.nanoTime();
+
+        private final long allocatedAtStart = allocatedBytes();
+
+        private final AtomicLong[] phases = new AtomicLong[Phase.values().length];
+
+        private final AtomicLong rows = new AtomicLong();
+
+        private final AtomicLong parts = new AtomicLong();
+
+        private final AtomicLong allocated = new AtomicLong();
+
+        private Recorder(String template) {
+            this.template = template;
+
+            for (int i = 0; i < phases.length; i++)
+                phases[i] = new AtomicLong();
+        }
+
+        /**
+         * 단계 시간 기록
+         *
+         * @param phase
+         * @param startNanos 단계 시작시각 ({@link System#nanoTime()})
+         */
+        public void addPhase(Phase phase, long startNanos) {
+            phases[phase.ordinal()].addAndGet(System.nanoTime() - startNanos);
+        }
+
+        public void addRows(long rows) {
+            this.rows.addAndGet(rows);
+        }
+
+        public void addPart() {
+            parts.incrementAndGet();
+        }
+
+        /**
+         * 다른 Thread (분할 파일 병렬 생성 등) 에서 할당된 메모리
+         */
+        public void addAllocatedBytes(long bytes) {
+            allocated.addAndGet(bytes);
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+    }
+
+    private static class TemplateMetrics {
+
+        private final AtomicLong failures = new AtomicLong();
+
+        private final Histogram time = new Histogram();
+
+        private final Histogram[] phases = new Histogram[Phase.values().length];
+
+        private final Histogram rows = new Histogram();
+
+        private final Histogram bytes = new Histogram();
+
+        private final Histogram parts = new Histogram();
+
+        private final Histogram allocated = new Histogram();
+
+        private TemplateMetrics() {
+            for (int i = 0; i < phases.length; i++)
+                phases[i] = new Histogram();
+        }
+
+        /** 시간은 µs 단위로 기록 */
+        private void record(Recorder recorder, long bytes, boolean failed) {
+            if (failed)
+                failures.incrementAndGet();
+
+            time.record((System.nanoTime() - recorder.startedAt) / 1000);
+            for (int i = 0; i < phases.length; i++)
+                phases[i].record(recorder.phases[i].get() / 1000);
+
+            rows.record(recorder.rows.get());
+            this.bytes.record(bytes);
+            parts.record(recorder.parts.get());
+            allocated.record(recorder.allocated.get());
+        }
+
+        private ExportStatistics snapshot(String template) {
+            return new ExportStatistics(template, failures.get(), time, phases[Phase.LOOKUP.ordinal()],
+                    phases[Phase.TRANSFORM.ordinal()], phases[Phase.WRITE.ordinal()], phases[Phase.ZIP.ordinal()],
+                    rows, bytes, parts, allocated);
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.util.Map;
+
+/**
+ * 엑셀 생성 통계 MXBean
+ *
+ * @see ExportMetrics
+ */
+public interface ExportMetricsMXBean {
+
+    /**
+     * 템플릿별 통계
+     *
+     * @return 템플릿 → 통계
+     */
+    Map<String, ExportStatistics> getStatistics();
+
+    /**
+     * 통계 초기화
+     */
+    void reset();
+
+}
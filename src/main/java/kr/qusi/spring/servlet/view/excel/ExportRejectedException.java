@@ -0,0 +1,24 @@
+package kr.qusi.spring.servlet.view.excel;
+
+/**
+ * 엑셀 생성 거절 (동시 생성 수 또는 메모리 예산 초과)
+ *
+ * @see ExportAdmissionController
+ */
+public class ExportRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 재시도 안내 (초) */
+    private final int retryAfter;
+
+    public ExportRejectedException(String message, int retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+}
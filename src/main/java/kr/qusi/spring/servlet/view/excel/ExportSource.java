@@ -0,0 +1,69 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import org.springframework.core.io.Resource;
+
+/**
+ * 생성 엔진 입력 (템플릿, 적재 데이터, 열 정보)
+ *
+ * @see ExportEngine
+ */
+public class ExportSource {
+
+    private final Resource template;
+
+    private final Map<String, Object> beans;
+
+    /** 열 (속성 → 제목, CSV 등 템플릿을 사용하지 않는 엔진에서 사용) */
+    private Map<String, String> columns;
+
+    private TemplateCache templateCache;
+
+    public ExportSource(Resource template, Map<String, Object> beans) {
+        this.template = template;
+        this.beans = beans;
+    }
+
+    /**
+     * 템플릿 InputStream (캐시 사용시 메모리 Stream)
+     *
+     * @return
+     * @throws IOException
+     */
+    public InputStream openTemplate() throws IOException {
+        if (templateCache != null)
+            return templateCache.getInputStream(template);
+
+        return new BufferedInputStream(template.getInputStream());
+    }
+
+    public Resource getTemplate() {
+        return template;
+    }
+
+    public Map<String, Object> getBeans() {
+        return beans;
+    }
+
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    public ExportSource setColumns(Map<String, String> columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    public TemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    public ExportSource setTemplateCache(TemplateCache templateCache) {
+        this.templateCache = templateCache;
+        return this;
+    }
+
+}
@@ -0,0 +1,136 @@
+package kr.qusi.spring.servlet.view.excel;
+
+/**
+ * 템플릿별 엑셀 생성 통계 (조회 시점의 근사 snapshot)
+ * 시간은 ms, 백분위수는 구간 상한 근사치
+ *
+ * @see ExportMetrics
+ */
+public class ExportStatistics {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String template;
+
+    private final long renders;
+
+    private final long failures;
+
+    private final long rows;
+
+    private final long bytes;
+
+    private final long parts;
+
+    private final double rowsPerSecond;
+
+    private final double meanTime;
+
+    private final double p95Time;
+
+    private final double maxTime;
+
+    private final double meanLookupTime;
+
+    private final double meanTransformTime;
+
+    private final double meanWriteTime;
+
+    private final double meanZipTime;
+
+    private final double meanAllocatedBytes;
+
+    private final long maxAllocatedBytes;
+
+    ExportStatistics(String template, long failures, Histogram time, Histogram lookup, Histogram transform,
+                     Histogram write, Histogram zip, Histogram rows, Histogram bytes, Histogram parts,
+                     Histogram allocated) {
+        this.template = template;
+        this.renders = time.getCount();
+        this.failures = failures;
+        this.rows = rows.getSum();
+        this.bytes = bytes.getSum();
+        this.parts = parts.getSum();
+        this.rowsPerSecond = time.getSum() == 0 ? 0 : rows.getSum() / (time.getSum() / 1000000.0);
+        this.meanTime = time.getMean() / MICROS_PER_MILLI;
+        this.p95Time = time.getPercentile(0.95) / MICROS_PER_MILLI;
+        this.maxTime = time.getMax() / MICROS_PER_MILLI;
+        this.meanLookupTime = lookup.getMean() / MICROS_PER_MILLI;
+        this.meanTransformTime = transform.getMean() / MICROS_PER_MILLI;
+        this.meanWriteTime = write.getMean() / MICROS_PER_MILLI;
+        this.meanZipTime = zip.getMean() / MICROS_PER_MILLI;
+        this.meanAllocatedBytes = allocated.getMean();
+        this.maxAllocatedBytes = allocated.getMax();
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public long getRenders() {
+        return renders;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getParts() {
+        return parts;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public double getMeanTime() {
+        return meanTime;
+    }
+
+    public double getP95Time() {
+        return p95Time;
+    }
+
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    public double getMeanLookupTime() {
+        return meanLookupTime;
+    }
+
+    public double getMeanTransformTime() {
+        return meanTransformTime;
+    }
+
+    public double getMeanWriteTime() {
+        return meanWriteTime;
+    }
+
+    public double getMeanZipTime() {
+        return meanZipTime;
+    }
+
+    public double getMeanAllocatedBytes() {
+        return meanAllocatedBytes;
+    }
+
+    public long getMaxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: renders=%d, rows=%d, bytes=%d, parts=%d, rows/s=%.0f, mean=%.1fms, p95=%.1fms",
+                template, renders, rows, bytes, parts, rowsPerSecond, meanTime, p95Time);
+    }
+
+}
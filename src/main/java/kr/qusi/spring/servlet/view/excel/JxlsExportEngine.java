@@ -0,0 +1,70 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import net.sf.jxls.transformer.XLSTransformer;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.core.io.Resource;
+
+/**
+ * jxls 생성 엔진 (메모리에서 변환, 템플릿 기능 전체 지원)
+ * 데이터가 커지면 메모리 사용량이 급격히 늘어나므로 작은 데이터 또는 분할 파일에 사용
+ */
+public class JxlsExportEngine implements ExportEngine {
+
+    @Override
+    public boolean supports(Resource template) {
+        String extension = getExtension(template);
+        return Excel2View.EXTENSION_XLS.equals(extension) || Excel2View.EXTENSION_XLSX.equals(extension);
+    }
+
+    @Override
+    public String getExtension(Resource template) {
+        return "." + FilenameUtils.getExtension(template.getFilename()).toLowerCase();
+    }
+
+    @Override
+    public String getContentType(Resource template) {
+        return Excel2View.EXTENSION_XLSX.equals(getExtension(template)) ?
+                Excel2View.CONTENT_TYPE_XLSX : Excel2View.CONTENT_TYPE_XLS;
+    }
+
+    @Override
+    public long export(ExportSource source, OutputStream os) throws Exception {
+        transform(source).write(os);
+        return ExportMetrics.countRows(source.getBeans());
+    }
+
+    /**
+     * 템플릿 변환 (출력 전 Workbook)
+     *
+     * @param source
+     * @return
+     * @throws IOException
+     * @throws InvalidFormatException
+     */
+    public Workbook transform(ExportSource source) throws IOException, InvalidFormatException {
+        InputStream is = null;
+
+        try {
+            is = source.openTemplate();
+            return new XLSTransformer().transformXLS(is, source.getBeans());
+        } finally {
+            IOUtils.closeQuietly(is);
+        }
+    }
+
+    /**
+     * @see #transform(ExportSource)
+     */
+    public Workbook transform(Resource template, Map<String, Object> beans, TemplateCache templateCache)
+            throws IOException, InvalidFormatException {
+        return transform(new ExportSource(template, beans).setTemplateCache(templateCache));
+    }
+
+}
@@ -0,0 +1,91 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.commons.io.IOUtils;
+import org.springframework.core.io.Resource;
+
+/**
+ * 스트리밍 생성 엔진 (.xlsx 템플릿만 지원, 메모리 사용량 일정)
+ * 반복 행 이후의 행(합계 등)은 지원하지 않음
+ *
+ * @see StreamingWorkbookWriter
+ */
+public class StreamingExportEngine implements ExportEngine {
+
+    private int windowSize = StreamingWorkbookWriter.DEFAULT_WINDOW_SIZE;
+
+    private boolean compressTempFiles = true;
+
+    public StreamingExportEngine() {
+    }
+
+    public StreamingExportEngine(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public boolean supports(Resource template) {
+        String filename = template.getFilename();
+        return filename != null && filename.toLowerCase().endsWith(Excel2View.EXTENSION_XLSX);
+    }
+
+    @Override
+    public String getExtension(Resource template) {
+        return Excel2View.EXTENSION_XLSX;
+    }
+
+    @Override
+    public String getContentType(Resource template) {
+        return Excel2View.CONTENT_TYPE_XLSX;
+    }
+
+    @Override
+    public long export(ExportSource source, OutputStream os) throws Exception {
+        InputStream is = null;
+
+        try {
+            is = source.openTemplate();
+
+            StreamingWorkbookWriter writer = new StreamingWorkbookWriter();
+            writer.setWindowSize(windowSize);
+            writer.setCompressTempFiles(compressTempFiles);
+
+            return writer.write(is, source.getBeans(), os);
+        } finally {
+            IOUtils.closeQuietly(is);
+        }
+    }
+
+    /**
+     * 메모리 유지 행 수만 다른 엔진 (공유 엔진은 그대로 두고 뷰 설정 적용)
+     *
+     * @param windowSize 메모리에 유지되는 행 수
+     * @return 같은 값이면 this, 아니면 설정을 복사한 엔진
+     */
+    public StreamingExportEngine withWindowSize(int windowSize) {
+        if (this.windowSize == windowSize)
+            return this;
+
+        StreamingExportEngine engine = new StreamingExportEngine(windowSize);
+        engine.setCompressTempFiles(compressTempFiles);
+        return engine;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public boolean isCompressTempFiles() {
+        return compressTempFiles;
+    }
+
+    public void setCompressTempFiles(boolean compressTempFiles) {
+        this.compressTempFiles = compressTempFiles;
+    }
+
+}
@@ -0,0 +1,400 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jxls.transformer.XLSTransformer;
+import org.apache.commons.jexl2.Expression;
+import org.apache.commons.jexl2.JexlEngine;
+import org.apache.commons.jexl2.MapContext;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.AreaPtgBase;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefPtgBase;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * 스트리밍 엑셀(.xlsx) 생성기
+ * 템플릿의 데이터 행(jx:forEach 또는 ${items.property})을 행 템플릿으로 사용하고,
+ * 데이터 행은 SXSSF 슬라이딩 윈도우(windowSize)만큼만 메모리에 유지함
+ * 데이터 행보다 위의 영역만 jxls 로 변환되며, 데이터 행 아래 영역(합계 등)은 지원하지 않음
+ * 데이터 행의 수식은 행을 복사할 때처럼 상대 행 참조($ 없는 행 번호)만 출력 행 위치로 이동함
+ * (열 전체 참조와 절대 행 참조는 그대로 유지)
+ */
+@Slf4j
+public class StreamingWorkbookWriter {
+
+    /** 메모리에 유지할 행 수 기본값 */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    private static final Pattern FOR_EACH_START = Pattern.compile("<jx:forEach\\b[^>]*>");
+
+    private static final Pattern FOR_EACH_ITEMS = Pattern.compile("items\\s*=\\s*\"\\$\\{\\s*([\\w.]+)\\s*\\}\"");
+
+    private static final Pattern FOR_EACH_VAR = Pattern.compile("var\\s*=\\s*\"(\\w+)\"");
+
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)\\}");
+
+    private static final Pattern COLLECTION_PROPERTY = Pattern.compile("^\\s*(\\w+)\\.");
+
+    private final JexlEngine jexl = new JexlEngine();
+
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    private boolean compressTempFiles = true;
+
+    public StreamingWorkbookWriter() {
+        jexl.setSilent(true);
+        jexl.setCache(512);
+    }
+
+    /**
+     * 템플릿과 데이터로 엑셀을 생성하여 출력
+     *
+     * @param template 템플릿 (.xlsx)
+     * @param beans    적재 데이터
+     * @param os       출력 Stream
+     * @return 출력된 데이터 행 수
+     * @throws IOException
+     */
+    public int write(InputStream template, Map<String, Object> beans, OutputStream os) throws IOException {
+        XSSFWorkbook workbook = new XSSFWorkbook(template);
+        RowTemplate rowTemplate = parseRowTemplate(workbook.getSheetAt(0), beans);
+        if (rowTemplate == null)
+            throw new IllegalArgumentException("Data row not found in template");
+
+        log.debug("Streaming items: {}, var: {}, row: {}", rowTemplate.items.getExpression(), rowTemplate.var,
+                rowTemplate.firstRow);
+
+        // 데이터 행 이하를 제거하고 나머지(헤더) 영역만 jxls 로 변환
+        Sheet templateSheet = workbook.getSheetAt(0);
+        for (int i = templateSheet.getLastRowNum(); rowTemplate.firstRow <= i; i--) {
+            Row row = templateSheet.getRow(i);
+            if (row != null)
+                templateSheet.removeRow(row);
+        }
+        new XLSTransformer().transformWorkbook(workbook, beans);
+
+        SXSSFWorkbook streaming = new SXSSFWorkbook(workbook, getWindowSize(), isCompressTempFiles());
+
+        try {
+            Sheet sheet = streaming.getSheetAt(0);
+            XSSFEvaluationWorkbook formulaWorkbook = XSSFEvaluationWorkbook.create(workbook);
+            int rowIndex = Math.max(rowTemplate.firstRow, templateSheet.getLastRowNum() + 1);
+            int count = 0;
+
+            // 행 변수 설정이 적재 데이터를 변경하지 않도록 복사본 사용
+            MapContext context = new MapContext(new HashMap<String, Object>(beans));
+            Iterator<?> items = toIterator(rowTemplate.items.evaluate(context));
+
+            while (items.hasNext()) {
+                context.set(rowTemplate.var, items.next());
+                writeRow(sheet.createRow(rowIndex++), rowTemplate, context, formulaWorkbook);
+                count++;
+            }
+
+            streaming.write(os);
+            return count;
+        } finally {
+            streaming.dispose();
+        }
+    }
+
+    private void writeRow(Row row, RowTemplate rowTemplate, MapContext context,
+                          XSSFEvaluationWorkbook formulaWorkbook) {
+        row.setHeight(rowTemplate.height);
+
+        for (CellTemplate cellTemplate : rowTemplate.cells) {
+            Cell cell = row.createCell(cellTemplate.column);
+            if (cellTemplate.style != null)
+                cell.setCellStyle(cellTemplate.style);
+
+            if (cellTemplate.formula != null) {
+                shiftFormula(cellTemplate, row.getRowNum() - rowTemplate.dataRow);
+                cell.setCellFormula(FormulaRenderer.toFormulaString(formulaWorkbook, cellTemplate.formula));
+            } else if (cellTemplate.expressions == null) {
+                setCellValue(cell, cellTemplate.constant);
+            } else if (cellTemplate.isSingleExpression()) {
+                setCellValue(cell, cellTemplate.expressions[0].evaluate(context));
+            } else {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < cellTemplate.expressions.length; i++) {
+                    sb.append(cellTemplate.texts[i]);
+                    Object value = cellTemplate.expressions[i].evaluate(context);
+                    if (value != null)
+                        sb.append(value);
+                }
+                sb.append(cellTemplate.texts[cellTemplate.expressions.length]);
+                cell.setCellValue(sb.toString());
+            }
+        }
+    }
+
+    /**
+     * 수식의 상대 행 참조를 템플릿 위치에서 offset 만큼 이동 (템플릿 Ptg 를 재사용하므로 원래 행 번호 기준)
+     */
+    private void shiftFormula(CellTemplate cellTemplate, int offset) {
+        for (int i = 0; i < cellTemplate.formula.length; i++) {
+            Ptg ptg = cellTemplate.formula[i];
+            int[] rows = cellTemplate.formulaRows[i];
+
+            if (ptg instanceof RefPtgBase) {
+                RefPtgBase ref = (RefPtgBase) ptg;
+                if (ref.isRowRelative())
+                    ref.setRow(rows[0] + offset);
+            } else if (ptg instanceof AreaPtgBase) {
+                AreaPtgBase area = (AreaPtgBase) ptg;
+                if (isWholeColumn(rows))
+                    continue;
+                if (area.isFirstRowRelative())
+                    area.setFirstRow(rows[0] + offset);
+                if (area.isLastRowRelative())
+                    area.setLastRow(rows[1] + offset);
+            }
+        }
+    }
+
+    private static boolean isWholeColumn(int[] rows) {
+        return rows[0] == 0 && rows[1] == SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+    }
+
+    private void setCellValue(Cell cell, Object value) {
+        if (value == null)
+            return;
+
+        if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+        } else if (value instanceof Calendar) {
+            cell.setCellValue((Calendar) value);
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else {
+            cell.setCellValue(String.valueOf(value));
+        }
+    }
+
+    private Iterator<?> toIterator(Object items) {
+        if (items == null)
+            return Collections.emptyIterator();
+        if (items instanceof Iterator)
+            return (Iterator<?>) items;
+        if (items instanceof Iterable)
+            return ((Iterable<?>) items).iterator();
+        if (items instanceof Map)
+            return ((Map<?, ?>) items).values().iterator();
+        if (items instanceof Object[])
+            return Arrays.asList((Object[]) items).iterator();
+
+        return Collections.singletonList(items).iterator();
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        if (windowSize < 1)
+            throw new IllegalArgumentException("'windowSize' must be greater than 0");
+
+        this.windowSize = windowSize;
+    }
+
+    public boolean isCompressTempFiles() {
+        return compressTempFiles;
+    }
+
+    public void setCompressTempFiles(boolean compressTempFiles) {
+        this.compressTempFiles = compressTempFiles;
+    }
+
+    // ========================================
+    // Template - 데이터 행 정보
+    // ========================================
+
+    /**
+     * 템플릿에서 데이터 행 탐색
+     * jx:forEach 태그가 있으면 태그 다음 한 행을, 없으면 컬렉션 속성(${items.property})을 포함한 첫 행을 사용
+     */
+    private RowTemplate parseRowTemplate(Sheet sheet, Map<String, Object> beans) {
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                if (cell.getCellType() != Cell.CELL_TYPE_STRING)
+                    continue;
+
+                String value = cell.getStringCellValue();
+
+                Matcher forEach = FOR_EACH_START.matcher(value);
+                if (forEach.find()) {
+                    Matcher items = FOR_EACH_ITEMS.matcher(forEach.group());
+                    Matcher var = FOR_EACH_VAR.matcher(forEach.group());
+                    if (items.find() && var.find())
+                        return createRowTemplate(row.getRowNum(), items.group(1), var.group(1),
+                                sheet.getRow(row.getRowNum() + 1));
+                }
+
+                Matcher expression = EXPRESSION.matcher(value);
+                while (expression.find()) {
+                    Matcher property = COLLECTION_PROPERTY.matcher(expression.group(1));
+                    if (property.find() && isCollection(beans.get(property.group(1))))
+                            return createRowTemplate(row.getRowNum(), property.group(1), property.group(1), row);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private RowTemplate createRowTemplate(int firstRow, String itemsKey, String var, Row dataRow) {
+        if (dataRow == null)
+            return null;
+
+        RowTemplate rowTemplate = new RowTemplate();
+        rowTemplate.firstRow = firstRow;
+        rowTemplate.dataRow = dataRow.getRowNum();
+        rowTemplate.items = jexl.createExpression(itemsKey);
+        rowTemplate.var = var;
+        rowTemplate.height = dataRow.getHeight();
+
+        for (Cell cell : dataRow) {
+            CellTemplate cellTemplate = new CellTemplate();
+            cellTemplate.column = cell.getColumnIndex();
+            cellTemplate.style = cell.getCellStyle();
+
+            switch (cell.getCellType()) {
+                case Cell.CELL_TYPE_STRING:
+                    parseExpressions(cellTemplate, cell.getStringCellValue());
+                    break;
+                case Cell.CELL_TYPE_NUMERIC:
+                    cellTemplate.constant = cell.getNumericCellValue();
+                    break;
+                case Cell.CELL_TYPE_BOOLEAN:
+                    cellTemplate.constant = cell.getBooleanCellValue();
+                    break;
+                case Cell.CELL_TYPE_FORMULA:
+                    parseFormula(cellTemplate, cell);
+                    break;
+                default:
+                    break;
+            }
+
+            rowTemplate.cells.add(cellTemplate);
+        }
+
+        return rowTemplate;
+    }
+
+    private void parseFormula(CellTemplate cellTemplate, Cell cell) {
+        Sheet sheet = cell.getSheet();
+        XSSFWorkbook workbook = (XSSFWorkbook) sheet.getWorkbook();
+
+        cellTemplate.formula = FormulaParser.parse(cell.getCellFormula(), XSSFEvaluationWorkbook.create(workbook),
+                FormulaType.CELL, workbook.getSheetIndex(sheet));
+        cellTemplate.formulaRows = new int[cellTemplate.formula.length][];
+
+        for (int i = 0; i < cellTemplate.formula.length; i++) {
+            Ptg ptg = cellTemplate.formula[i];
+            if (ptg instanceof RefPtgBase) {
+                cellTemplate.formulaRows[i] = new int[]{((RefPtgBase) ptg).getRow()};
+            } else if (ptg instanceof AreaPtgBase) {
+                AreaPtgBase area = (AreaPtgBase) ptg;
+                cellTemplate.formulaRows[i] = new int[]{area.getFirstRow(), area.getLastRow()};
+            }
+        }
+    }
+
+    private void parseExpressions(CellTemplate cellTemplate, String value) {
+        List<String> texts = new ArrayList<>();
+        List<Expression> expressions = new ArrayList<>();
+
+        Matcher matcher = EXPRESSION.matcher(value);
+        int start = 0;
+        while (matcher.find()) {
+            texts.add(value.substring(start, matcher.start()));
+            expressions.add(jexl.createExpression(matcher.group(1)));
+            start = matcher.end();
+        }
+        texts.add(value.substring(start));
+
+        if (expressions.isEmpty()) {
+            cellTemplate.constant = value;
+        } else {
+            cellTemplate.texts = texts.toArray(new String[texts.size()]);
+            cellTemplate.expressions = expressions.toArray(new Expression[expressions.size()]);
+        }
+    }
+
+    private boolean isCollection(Object value) {
+        return value instanceof Iterable || value instanceof Iterator || value instanceof Map
+                || value instanceof Object[];
+    }
+
+    private static class RowTemplate {
+
+        /** 제거 시작 행 (jx:forEach 태그 행 또는 데이터 행) */
+        private int firstRow;
+
+        /** 템플릿의 데이터 행 (수식 행 참조의 기준) */
+        private int dataRow;
+
+        /** 데이터 목록 표현식 */
+        private Expression items;
+
+        /** 행 변수명 */
+        private String var;
+
+        private short height;
+
+        private final List<CellTemplate> cells = new ArrayList<>();
+
+    }
+
+    private static class CellTemplate {
+
+        private int column;
+
+        private CellStyle style;
+
+        /** 표현식이 없는 셀의 값 */
+        private Object constant;
+
+        /** 표현식 사이의 문자열 (expressions.length + 1) */
+        private String[] texts;
+
+        private Expression[] expressions;
+
+        /** 수식 (출력 행마다 상대 행 참조를 이동하여 재사용) */
+        private Ptg[] formula;
+
+        /** 수식 참조의 템플릿 기준 행 번호 (formula 와 같은 순서, 참조가 아니면 null) */
+        private int[][] formulaRows;
+
+        private boolean isSingleExpression() {
+            return expressions.length == 1 && texts[0].isEmpty() && texts[1].isEmpty();
+        }
+
+    }
+
+}
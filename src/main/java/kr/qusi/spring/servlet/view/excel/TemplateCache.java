@@ -0,0 +1,195 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.springframework.core.io.Resource;
+
+/**
+ * 엑셀 템플릿 내용(바이트) 캐시
+ * 템플릿(Resource, 수정시각) 별로 파일 내용을 메모리에 유지하여 렌더링(분할 파일)마다 Resource 를 다시 읽지 않도록 함
+ * POI Workbook 은 복제할 수 없으므로 변환시에는 캐시된 내용의 메모리 Stream 을 사용하며, 파싱은 매번 다시 함
+ * 로컬 파일은 OS 페이지 캐시로 충분하므로 jar, 원격 저장소 등 읽기 비용이 큰 Resource 에만 사용 (기본값: 사용안함)
+ * 항목 수 및 전체 크기 제한을 초과하면 가장 오래 사용되지 않은 템플릿부터 제거 (LRU)
+ */
+@Slf4j
+public class TemplateCache {
+
+    /** 최대 항목 수 기본값 */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** 최대 전체 크기 기본값 (32MB) */
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    private long maxBytes = DEFAULT_MAX_BYTES;
+
+    /** 현재 캐시된 전체 크기 */
+    private long totalBytes;
+
+    /**
+     * 템플릿 InputStream 조회
+     * 캐시된 템플릿은 메모리 Stream 으로, 크기 제한을 넘는 템플릿은 Resource Stream 으로 반환
+     *
+     * @param template 템플릿
+     * @return InputStream
+     * @throws IOException
+     */
+    public InputStream getInputStream(Resource template) throws IOException {
+        byte[] content = get(template);
+        if (content != null)
+            return new ByteArrayInputStream(content);
+
+        return new BufferedInputStream(template.getInputStream());
+    }
+
+    /**
+     * 템플릿 내용 조회
+     *
+     * @param template 템플릿
+     * @return 템플릿 내용 or null (크기 제한 초과)
+     * @throws IOException
+     */
+    public byte[] get(Resource template) throws IOException {
+        String key = template.getDescription();
+        long lastModified = lastModified(template);
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == lastModified) {
+                hitCount.incrementAndGet();
+                return entry.content;
+            }
+        }
+
+        missCount.incrementAndGet();
+
+        long length = template.contentLength();
+        if (maxBytes < length)
+            return null;
+
+        byte[] content = read(template);
+        put(key, new Entry(content, lastModified));
+
+        log.debug("Template cached: {} ({} bytes)", key, content.length);
+        return content;
+    }
+
+    /**
+     * 캐시 전체 제거
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            Entry old = entries.put(key, entry);
+            if (old != null)
+                totalBytes -= old.content.length;
+            totalBytes += entry.content.length;
+
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext() && (maxEntries < entries.size() || maxBytes < totalBytes)) {
+                Entry eldest = it.next();
+                if (eldest == entry)
+                    break;
+
+                it.remove();
+                totalBytes -= eldest.content.length;
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    private byte[] read(Resource template) throws IOException {
+        InputStream is = null;
+
+        try {
+            is = template.getInputStream();
+            return IOUtils.toByteArray(is);
+        } finally {
+            IOUtils.closeQuietly(is);
+        }
+    }
+
+    private long lastModified(Resource template) {
+        try {
+            return template.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getTotalBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    private static class Entry {
+
+        private final byte[] content;
+
+        private final long lastModified;
+
+        private Entry(byte[] content, long lastModified) {
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.servlet.ServletContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.web.context.support.ServletContextResource;
+
+/**
+ * 엑셀 템플릿 색인
+ * 시작시 prefix 경로를 탐색하여 경로 → 템플릿 색인을 생성하며, 색인된 템플릿은 파일시스템을 확인하지 않음
+ * 색인에 없는 템플릿(시작 후 추가된 템플릿, prefix 경로 밖)은 직접 확인하되,
+ * 없는 템플릿은 일정시간(negativeTtl) 동안 다시 확인하지 않음
+ * 웹 애플리케이션 전체("/")는 탐색하지 않음
+ */
+@Slf4j
+public class TemplateIndex {
+
+    /** 없는 템플릿 재확인 간격 기본값 (60초) */
+    public static final long DEFAULT_NEGATIVE_TTL = 60 * 1000L;
+
+    /** 없는 템플릿 최대 보관 수 */
+    private static final int MAX_NEGATIVE_ENTRIES = 1024;
+
+    private final ServletContext servletContext;
+
+    /** 색인된 경로 (디렉토리) */
+    private final String root;
+
+    /** 색인 (경로 → 템플릿) */
+    private final Map<String, Resource> templates;
+
+    /** 색인 밖에서 찾은 템플릿 */
+    private final ConcurrentMap<String, Resource> found = new ConcurrentHashMap<>();
+
+    /** 색인 밖에서 찾지 못한 템플릿 (경로 → 확인시각) */
+    private final ConcurrentMap<String, Long> missing = new ConcurrentHashMap<>();
+
+    private long negativeTtl = DEFAULT_NEGATIVE_TTL;
+
+    private TemplateIndex(ServletContext servletContext, String root, Map<String, Resource> templates) {
+        this.servletContext = servletContext;
+        this.root = root;
+        this.templates = Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * prefix 가 속한 디렉토리 이하의 템플릿 색인 생성
+     *
+     * @param servletContext ServletContext
+     * @param prefix         템플릿 prefix (예: /WEB-INF/excel/)
+     * @return 템플릿 색인
+     */
+    public static TemplateIndex scan(ServletContext servletContext, String prefix) {
+        String path = new ServletContextResource(servletContext, prefix == null ? "/" : prefix).getPath();
+        String root = path.substring(0, path.lastIndexOf('/') + 1);
+
+        Map<String, Resource> templates = new HashMap<>();
+        if ("/".equals(root))
+            log.warn("Template index skipped: prefix is the webapp root");
+        else
+            scan(servletContext, root, templates);
+
+        log.debug("Template index: {} ({} templates)", root, templates.size());
+        return new TemplateIndex(servletContext, root, templates);
+    }
+
+    private static void scan(ServletContext servletContext, String dir, Map<String, Resource> templates) {
+        Set<String> paths = servletContext.getResourcePaths(dir);
+        if (paths == null)
+            return;
+
+        for (String path : paths) {
+            if (path.endsWith("/"))
+                scan(servletContext, path, templates);
+            else
+                templates.put(path, new ServletContextResource(servletContext, path));
+        }
+    }
+
+    /**
+     * 템플릿 조회
+     *
+     * @param path 템플릿 경로
+     * @return 템플릿 or null
+     */
+    public Resource find(String path) {
+        ServletContextResource candidate = new ServletContextResource(servletContext, path);
+        String key = candidate.getPath();
+
+        Resource template = templates.get(key);
+        if (template != null)
+            return template;
+
+        template = found.get(key);
+        if (template != null)
+            return template;
+
+        long now = System.currentTimeMillis();
+        Long missedAt = missing.get(key);
+        if (missedAt != null && now - missedAt < negativeTtl)
+            return null;
+
+        if (candidate.exists()) {
+            found.put(key, candidate);
+            missing.remove(key);
+            return candidate;
+        }
+
+        if (MAX_NEGATIVE_ENTRIES <= missing.size())
+            missing.clear();
+        missing.put(key, now);
+
+        return null;
+    }
+
+    /**
+     * 색인된 엑셀 템플릿을 미리 읽어 검증하고 캐시에 적재
+     *
+     * @param templateCache 템플릿 캐시 (null 가능)
+     * @throws IllegalStateException 올바르지 않은 템플릿
+     */
+    public void preload(TemplateCache templateCache) {
+        for (Resource template : templates.values()) {
+            String extension = "." + FilenameUtils.getExtension(template.getFilename()).toLowerCase();
+            if (!(Excel2View.EXTENSION_XLS.equals(extension) || Excel2View.EXTENSION_XLSX.equals(extension)))
+                continue;
+
+            InputStream is = null;
+
+            try {
+                is = templateCache != null ? templateCache.getInputStream(template) : template.getInputStream();
+                WorkbookFactory.create(is);
+
+                log.debug("Template preloaded: {}", template);
+            } catch (Exception e) {
+                throw new IllegalStateException("Invalid template: " + template, e);
+            } finally {
+                IOUtils.closeQuietly(is);
+            }
+        }
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public Collection<Resource> getTemplates() {
+        return templates.values();
+    }
+
+    public long getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(long negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+}
@@ -1,21 +1,48 @@
 package kr.qusi.spring.servlet.view.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import eu.bitwalker.useragentutils.Browser;
 import eu.bitwalker.useragentutils.UserAgent;
+import kr.qusi.spring.util.ObjectMapperRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * JSON View
+ * 공유 ObjectMapper 와 타입/View 별로 캐시된 ObjectWriter 를 사용
  *
  * @since 0.0.1
  * @author yongseoklee
+ * @see ObjectMapperRegistry
  */
 @Slf4j
 public class MappingJackson2JsonView extends org.springframework.web.servlet.view.json.MappingJackson2JsonView {
 
+    /** 공유 Registry (Spring MVC 기본 설정의 ObjectMapper) */
+    private static final ObjectMapperRegistry DEFAULT_REGISTRY = new ObjectMapperRegistry(
+            Jackson2ObjectMapperBuilder.json().build());
+
+    private ObjectMapperRegistry objectMapperRegistry;
+
+    /** prettyPrint 지정값 (null: 미지정) */
+    private Boolean prettyPrint;
+
+    public MappingJackson2JsonView() {
+        this(DEFAULT_REGISTRY);
+    }
+
+    public MappingJackson2JsonView(ObjectMapperRegistry objectMapperRegistry) {
+        this.setObjectMapperRegistry(objectMapperRegistry);
+    }
+
     @Override
     protected void prepareResponse(HttpServletRequest request, HttpServletResponse response) {
         super.prepareResponse(request, response);
@@ -35,4 +62,62 @@ public class MappingJackson2JsonView extends org.springframework.web.servlet.vie
         }
     }
 
+    @Override
+    protected void writeContent(OutputStream stream, Object object) throws IOException {
+        JsonGenerator generator = this.getObjectMapper().getFactory().createGenerator(stream, this.getEncoding());
+        this.writePrefix(generator, object);
+
+        Object value = object;
+        Class<?> serializationView = null;
+        if (value instanceof MappingJacksonValue) {
+            MappingJacksonValue container = (MappingJacksonValue) value;
+            value = container.getValue();
+            serializationView = container.getSerializationView();
+        }
+
+        this.objectMapperRegistry.getWriter(value != null ? value.getClass() : null, serializationView)
+                .writeValue(generator, value);
+
+        this.writeSuffix(generator, object);
+        generator.flush();
+    }
+
+    /**
+     * ObjectMapper 지정 (전용 Registry 생성)
+     */
+    @Override
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.setObjectMapperRegistry(new ObjectMapperRegistry(objectMapper));
+    }
+
+    /**
+     * 공유 ObjectMapper 가 바뀌지 않도록 복사한 ObjectMapper 에 설정
+     */
+    @Override
+    public void setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+        this.setObjectMapperRegistry(this.objectMapperRegistry);
+        super.setPrettyPrint(prettyPrint);
+    }
+
+    public ObjectMapperRegistry getObjectMapperRegistry() {
+        return objectMapperRegistry;
+    }
+
+    /**
+     * Registry 지정
+     * prettyPrint 지정 후에는 Spring 이 ObjectMapper 설정(INDENT_OUTPUT)을 바꾸므로 복사한 ObjectMapper 사용
+     */
+    public void setObjectMapperRegistry(ObjectMapperRegistry objectMapperRegistry) {
+        if (this.prettyPrint != null) {
+            // 캐시되는 ObjectWriter 에 반영되도록 Registry 생성 전에 설정
+            ObjectMapper objectMapper = objectMapperRegistry.getObjectMapper().copy();
+            objectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
+            objectMapperRegistry = new ObjectMapperRegistry(objectMapper);
+        }
+
+        this.objectMapperRegistry = objectMapperRegistry;
+        super.setObjectMapper(objectMapperRegistry.getObjectMapper());
+    }
+
 }
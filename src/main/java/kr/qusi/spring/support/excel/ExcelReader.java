@@ -0,0 +1,420 @@
+package kr.qusi.spring.support.excel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.SAXParserFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.propertyeditors.CustomDateEditor;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * 스트리밍 엑셀 읽기 (.xlsx 만 지원)
+ * Workbook 을 메모리에 적재하지 않고 SAX 로 읽어 제목행 기준으로 Bean 또는 Map 에 바인딩하며,
+ * batchSize 개씩 묶어서 {@link ExcelRowHandler} 로 전달하므로 행 수와 관계없이 메모리 사용량이 일정함
+ * <p>
+ * 값은 셀 서식과 무관하게 원본 값(숫자: 1234.5, 날짜: yyyy-MM-dd HH:mm:ss)으로 읽으며,
+ * Map 은 문자열로, Bean 은 속성 타입으로 변환하여 바인딩함
+ *
+ * <pre>
+ * ExcelReader&lt;Member&gt; reader = new ExcelReader&lt;&gt;(Member.class);
+ * reader.setColumns(columns); // 속성 → 제목 (미지정시 제목을 속성명으로 사용)
+ * reader.read(file.getInputStream(), new ExcelRowHandler&lt;Member&gt;() {
+ *     public void handle(List&lt;Member&gt; rows) {
+ *         memberMapper.insertBatch(rows);
+ *     }
+ * });
+ * </pre>
+ *
+ * @param <T> 행 타입 (Bean 또는 Map)
+ */
+@Slf4j
+public class ExcelReader<T> {
+
+    /** 묶음 크기 기본값 */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** 날짜 형식 */
+    public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private final Class<T> type;
+
+    /** 묶음 크기 */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** 시트 순서 (0 부터) */
+    private int sheetIndex;
+
+    /** 제목행 (0 부터, 이전 행은 무시, -1: 제목행 없이 열 이름(A, B, ...)을 속성명으로 사용) */
+    private int headerRow;
+
+    /** 열 (속성 → 제목, 미지정시 제목을 속성명으로 사용) */
+    private Map<String, String> columns;
+
+    /** 빈 행 무시 */
+    private boolean skipEmptyRows = true;
+
+    public ExcelReader(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Map 으로 읽는 ExcelReader
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static ExcelReader<Map<String, Object>> forMap() {
+        return new ExcelReader(Map.class);
+    }
+
+    /**
+     * 업로드 Stream 읽기 (임시파일로 저장 후 읽음, 압축된 파일 전체를 메모리에 적재하지 않음)
+     *
+     * @param is      .xlsx Stream
+     * @param handler 행 처리기
+     * @return 읽은 행 수
+     * @throws Exception
+     */
+    public long read(InputStream is, ExcelRowHandler<T> handler) throws Exception {
+        File temp = File.createTempFile("excel-reader-", ".xlsx");
+        OutputStream os = null;
+
+        try {
+            os = new FileOutputStream(temp);
+            IOUtils.copyLarge(is, os);
+            os.close();
+
+            return read(temp, handler);
+        } finally {
+            IOUtils.closeQuietly(os);
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 파일 읽기
+     *
+     * @param file    .xlsx 파일
+     * @param handler 행 처리기
+     * @return 읽은 행 수
+     * @throws Exception
+     */
+    public long read(File file, ExcelRowHandler<T> handler) throws Exception {
+        OPCPackage pkg = OPCPackage.open(file.getPath(), PackageAccess.READ);
+        InputStream sheet = null;
+
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            sheet = getSheet(reader);
+
+            RowBinder binder = new RowBinder(handler);
+            XMLReader parser = createParser();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, binder, new RawDataFormatter(), false));
+
+            try {
+                parser.parse(new InputSource(sheet));
+            } catch (HandlerException e) {
+                throw e.getCause();
+            }
+
+            binder.flush();
+            log.debug("Excel read: {} rows", binder.count);
+            return binder.count;
+        } finally {
+            IOUtils.closeQuietly(sheet);
+            pkg.revert();
+        }
+    }
+
+    private InputStream getSheet(XSSFReader reader) throws Exception {
+        Iterator<InputStream> sheets = reader.getSheetsData();
+
+        for (int i = 0; sheets.hasNext(); i++) {
+            InputStream sheet = sheets.next();
+            if (i == sheetIndex)
+                return sheet;
+
+            IOUtils.closeQuietly(sheet);
+        }
+
+        throw new IllegalArgumentException("Sheet not found: " + sheetIndex);
+    }
+
+    private XMLReader createParser() throws Exception {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        // 업로드 파일의 외부 엔티티 참조 차단
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+
+        return factory.newSAXParser().getXMLReader();
+    }
+
+    /**
+     * 행 생성
+     */
+    @SuppressWarnings("unchecked")
+    protected T createRow() {
+        if (Map.class.isAssignableFrom(type))
+            return (T) new LinkedHashMap<String, Object>();
+
+        return BeanUtils.instantiateClass(type);
+    }
+
+    // ========================================
+    // SAX 행 처리
+    // ========================================
+
+    private class RowBinder implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ExcelRowHandler<T> handler;
+
+        private final boolean map = Map.class.isAssignableFrom(type);
+
+        private final BeanWrapperImpl wrapper;
+
+        /** 열 번호 → 속성 (바인딩할 수 없는 열은 null) */
+        private final Map<Integer, String> properties = new HashMap<>();
+
+        /** 현재 행 값 (열 번호 → 값) */
+        private final Map<Integer, String> values = new HashMap<>();
+
+        private List<T> batch = new ArrayList<>();
+
+        private int rowNum;
+
+        private long count;
+
+        RowBinder(ExcelRowHandler<T> handler) {
+            this.handler = handler;
+
+            if (map) {
+                this.wrapper = null;
+            } else {
+                this.wrapper = new BeanWrapperImpl(type);
+                this.wrapper.registerCustomEditor(Date.class, new CustomDateEditor(new SimpleDateFormat(DATE_FORMAT), true));
+            }
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            this.rowNum = rowNum;
+            this.values.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue) {
+            if (formattedValue != null && !formattedValue.isEmpty())
+                values.put((int) new CellReference(cellReference).getCol(), formattedValue);
+        }
+
+        @Override
+        public void endRow() {
+            if (rowNum < headerRow)
+                return;
+            if (rowNum == headerRow) {
+                bindHeader();
+                return;
+            }
+            if (values.isEmpty() && skipEmptyRows)
+                return;
+
+            batch.add(bind());
+            count++;
+
+            if (batch.size() >= batchSize)
+                flush();
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+        private void bindHeader() {
+            for (Map.Entry<Integer, String> cell : values.entrySet())
+                properties.put(cell.getKey(), getProperty(cell.getValue().trim()));
+        }
+
+        /**
+         * 열 속성 (제목행이 없으면 열 이름 사용)
+         */
+        private String getProperty(int col) {
+            if (headerRow < 0 && !properties.containsKey(col))
+                properties.put(col, getProperty(CellReference.convertNumToColString(col)));
+
+            return properties.get(col);
+        }
+
+        private String getProperty(String title) {
+            String property = title;
+            if (columns != null) {
+                property = null;
+                for (Map.Entry<String, String> column : columns.entrySet()) {
+                    if (column.getValue().equals(title))
+                        property = column.getKey();
+                }
+            }
+
+            if (property != null && (map || wrapper.isWritableProperty(property)))
+                return property;
+
+            log.debug("Excel column ignored: {}", title);
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T bind() {
+            T row = createRow();
+            if (!map)
+                wrapper.setWrappedInstance(row);
+
+            for (Map.Entry<Integer, String> cell : values.entrySet()) {
+                String property = getProperty(cell.getKey());
+                if (property == null)
+                    continue;
+
+                if (map) {
+                    ((Map<String, Object>) row).put(property, cell.getValue());
+                    continue;
+                }
+
+                try {
+                    wrapper.setPropertyValue(property, cell.getValue());
+                } catch (BeansException e) {
+                    throw new IllegalArgumentException("Invalid value at row " + (rowNum + 1) + ", column "
+                            + CellReference.convertNumToColString(cell.getKey()) + ": " + cell.getValue(), e);
+                }
+            }
+
+            return row;
+        }
+
+        void flush() {
+            if (batch.isEmpty())
+                return;
+
+            try {
+                handler.handle(batch);
+            } catch (Exception e) {
+                throw new HandlerException(e);
+            }
+
+            batch = new ArrayList<>(batchSize);
+        }
+
+    }
+
+    /**
+     * 처리기 예외 (SAX 처리중 전달용)
+     */
+    private static class HandlerException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        HandlerException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+
+    }
+
+    /**
+     * 셀 서식과 무관하게 원본 값으로 변환 (천단위 구분자 등으로 타입 변환이 실패하지 않도록)
+     */
+    private static class RawDataFormatter extends DataFormatter {
+
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return formatRawCellContents(value, formatIndex, formatString, false);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value))
+                return dateFormat.format(DateUtil.getJavaDate(value, use1904Windowing));
+
+            return new BigDecimal(Double.toString(value)).stripTrailingZeros().toPlainString();
+        }
+
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The minimum value of 'batchSize' is 1");
+
+        this.batchSize = batchSize;
+    }
+
+    public int getSheetIndex() {
+        return sheetIndex;
+    }
+
+    public void setSheetIndex(int sheetIndex) {
+        this.sheetIndex = sheetIndex;
+    }
+
+    public int getHeaderRow() {
+        return headerRow;
+    }
+
+    public void setHeaderRow(int headerRow) {
+        this.headerRow = headerRow;
+    }
+
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(Map<String, String> columns) {
+        this.columns = columns;
+    }
+
+    public boolean isSkipEmptyRows() {
+        return skipEmptyRows;
+    }
+
+    public void setSkipEmptyRows(boolean skipEmptyRows) {
+        this.skipEmptyRows = skipEmptyRows;
+    }
+
+}
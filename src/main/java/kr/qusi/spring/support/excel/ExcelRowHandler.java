@@ -0,0 +1,21 @@
+package kr.qusi.spring.support.excel;
+
+import java.util.List;
+
+/**
+ * 엑셀 행 처리기 (일정 크기로 묶어서 전달됨)
+ *
+ * @param <T> 행 타입
+ * @see ExcelReader
+ */
+public interface ExcelRowHandler<T> {
+
+    /**
+     * 행 묶음 처리 (일괄 등록 등)
+     *
+     * @param rows 행 묶음 (처리 후 재사용하지 않음)
+     * @throws Exception 발생시 읽기 중단
+     */
+    void handle(List<T> rows) throws Exception;
+
+}
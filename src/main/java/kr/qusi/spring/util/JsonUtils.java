@@ -1,9 +1,12 @@
 package kr.qusi.spring.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import eu.bitwalker.useragentutils.Browser;
 import eu.bitwalker.useragentutils.UserAgent;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
 import org.springframework.http.MediaType;
 
 import javax.servlet.http.HttpServletRequest;
@@ -32,8 +35,62 @@ public abstract class JsonUtils {
         return MediaType.APPLICATION_JSON_VALUE.equals(accept);
     }
 
+    /**
+     * Object 를 JSON 형태로 Response 에 직접 출력 (중간 String 없이 OutputStream 으로 출력)
+     *
+     * @param request  HttpServletRequest
+     * @param response HttpServletResponse
+     * @param object   Json 변환 대상
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, Object object) {
+        write(request, response, object, request.getCharacterEncoding());
+    }
+
+    /**
+     * Object 를 JSON 형태로 Response 에 직접 출력 (중간 String 없이 OutputStream 으로 출력)
+     * Jackson 이 지원하지 않는 인코딩(UTF-8/16/32 외)은 Response 의 Writer 로 출력
+     *
+     * @param request  HttpServletRequest
+     * @param response HttpServletResponse
+     * @param object   Json 변환 대상
+     * @param encoding 인코딩 (null: UTF-8)
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, Object object, String encoding) {
+        if (encoding == null)
+            encoding = JsonEncoding.UTF8.getJavaName();
+
+        prepareResponse(request, response, encoding);
+
+        ObjectMapperRegistry registry = ObjectMapperRegistry.getDefault();
+        JsonFactory factory = registry.getObjectMapper().getFactory();
+        JsonGenerator generator = null;
+        boolean completed = false;
+
+        try {
+            JsonEncoding jsonEncoding = getJsonEncoding(encoding);
+            generator = jsonEncoding != null ? factory.createGenerator(response.getOutputStream(), jsonEncoding)
+                    : factory.createGenerator(response.getWriter());
+            // Response Stream 은 컨테이너가 닫음
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 변환 중 실패한 경우 닫으면서 남은 괄호를 채우면 잘린 JSON 이 정상 응답처럼 보이므로 채우지 않음
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+            registry.getWriter(object).writeValue(generator, object);
+
+            // 닫을 때 남은 버퍼를 출력하고 Generator 버퍼를 반환 (재사용), 출력 오류는 호출자에게 전달
+            generator.close();
+            completed = true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (!completed)
+                IOUtils.closeQuietly(generator);
+        }
+    }
+
     /**
      * Object 를 JSON 형태로 Response 에 직접 출력할때 사용
+     * 변환된 Json 이 필요한 경우에만 사용 (전체를 String 으로 만든 후 출력하므로 큰 응답은 {@link #write} 사용)
      *
      * @param request  HttpServletRequest
      * @param response HttpServletResponse
@@ -46,6 +103,7 @@ public abstract class JsonUtils {
 
     /**
      * Object 를 JSON 형태로 Response 에 직접 출력할때 사용
+     * 변환된 Json 이 필요한 경우에만 사용 (전체를 String 으로 만든 후 출력하므로 큰 응답은 {@link #write} 사용)
      *
      * @param request  HttpServletRequest
      * @param response HttpServletResponse
@@ -55,27 +113,9 @@ public abstract class JsonUtils {
      */
     public static String responseWriter(HttpServletRequest request, HttpServletResponse response, Object object, String encoding) {
         try {
-            String json = new ObjectMapper().writeValueAsString(object);
-
-            // IE9이하에서 Response 의 ContentType 이 application/json 경우 간혹 다운로드 액션이 작동하는
-            // 이슈가 있음.
-            // 해당 이슈를 해결하기 위해 IE9 하위버전은 ContentType 을 text/html 으로 설정함.
-            // http://blog.degree.no/2012/09/jquery-json-ie8ie9-treats-response-as-downloadable-file
-            UserAgent userAgent = UserAgent.parseUserAgentString(request.getHeader("User-Agent"));
-            Browser browser = userAgent.getBrowser();
-
-            if (Browser.IE5.equals(browser) || Browser.IE5_5.equals(browser) || Browser.IE6.equals(browser)
-                    || Browser.IE7.equals(browser) || Browser.IE8.equals(browser) || Browser.IE9.equals(browser)) {
-                log.debug("[{} Compatibility] ContentType 변경, application/json to text/html", browser);
-
-                response.setContentType(MediaType.TEXT_HTML_VALUE);
-            } else {
-                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            }
-
-            if (encoding != null) {
-                response.setCharacterEncoding(encoding);
-            }
+            String json = ObjectMapperRegistry.getDefault().getWriter(object).writeValueAsString(object);
+
+            prepareResponse(request, response, encoding);
             response.getWriter().write(json);
 
             return json;
@@ -84,4 +124,41 @@ public abstract class JsonUtils {
         }
     }
 
+    /**
+     * ContentType, 인코딩 설정
+     */
+    private static void prepareResponse(HttpServletRequest request, HttpServletResponse response, String encoding) {
+        // IE9이하에서 Response 의 ContentType 이 application/json 경우 간혹 다운로드 액션이 작동하는
+        // 이슈가 있음.
+        // 해당 이슈를 해결하기 위해 IE9 하위버전은 ContentType 을 text/html 으로 설정함.
+        // http://blog.degree.no/2012/09/jquery-json-ie8ie9-treats-response-as-downloadable-file
+        UserAgent userAgent = UserAgent.parseUserAgentString(request.getHeader("User-Agent"));
+        Browser browser = userAgent.getBrowser();
+
+        if (Browser.IE5.equals(browser) || Browser.IE5_5.equals(browser) || Browser.IE6.equals(browser)
+                || Browser.IE7.equals(browser) || Browser.IE8.equals(browser) || Browser.IE9.equals(browser)) {
+            log.debug("[{} Compatibility] ContentType 변경, application/json to text/html", browser);
+
+            response.setContentType(MediaType.TEXT_HTML_VALUE);
+        } else {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        }
+
+        if (encoding != null) {
+            response.setCharacterEncoding(encoding);
+        }
+    }
+
+    /**
+     * Jackson 이 직접 인코딩하는 문자셋 (null: 지원안함)
+     */
+    private static JsonEncoding getJsonEncoding(String encoding) {
+        for (JsonEncoding jsonEncoding : JsonEncoding.values()) {
+            if (jsonEncoding.getJavaName().equalsIgnoreCase(encoding))
+                return jsonEncoding;
+        }
+
+        return null;
+    }
+
 }
@@ -0,0 +1,154 @@
+package kr.qusi.spring.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 공유 ObjectMapper 및 타입/View 별 ObjectWriter 캐시
+ * ObjectMapper 는 생성 비용이 크고 Serializer 캐시를 가지므로 요청마다 생성하지 않고 공유함
+ * ObjectWriter 는 타입별 Serializer 를 미리 찾아두므로 타입당 한 번만 조회함
+ * <p>
+ * ObjectWriter 는 생성 시점의 설정을 사용하므로 ObjectMapper 설정은 사용 전에 마쳐야 함 (변경시 {@link #clear()})
+ *
+ * <pre>
+ * &lt;bean id="objectMapperRegistry" class="kr.qusi.spring.util.ObjectMapperRegistry"&gt;
+ *     &lt;constructor-arg ref="objectMapper" /&gt;
+ *     &lt;property name="registerDefault" value="true" /&gt; &lt;!-- JsonUtils 에서 사용 --&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * @see JsonUtils
+ * @see kr.qusi.spring.servlet.JsonViewResolver
+ */
+public class ObjectMapperRegistry {
+
+    /** 캐시할 최대 ObjectWriter 수 (초과시 캐시하지 않음) */
+    private static final int MAX_WRITERS = 1024;
+
+    private static volatile ObjectMapperRegistry defaultRegistry = new ObjectMapperRegistry();
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter writer;
+
+    private final ConcurrentMap<WriterKey, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * 기본 설정의 ObjectMapper 사용
+     */
+    public ObjectMapperRegistry() {
+        this(new ObjectMapper());
+    }
+
+    public ObjectMapperRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * 기본 Registry (JsonUtils 등 정적 메소드에서 사용, 기본 설정의 ObjectMapper)
+     */
+    public static ObjectMapperRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    public static void setDefault(ObjectMapperRegistry registry) {
+        if (registry == null)
+            throw new IllegalArgumentException("ObjectMapperRegistry is null");
+
+        defaultRegistry = registry;
+    }
+
+    /**
+     * Bean 설정시 기본 Registry 로 등록
+     */
+    public void setRegisterDefault(boolean register) {
+        if (register)
+            setDefault(this);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * 값의 타입에 맞는 ObjectWriter
+     *
+     * @param value 변환 대상 (null 허용)
+     * @return
+     */
+    public ObjectWriter getWriter(Object value) {
+        return getWriter(value != null ? value.getClass() : null, null);
+    }
+
+    /**
+     * 타입, JSON View 에 맞는 ObjectWriter
+     *
+     * @param type 타입 (null: 타입 미지정)
+     * @param view JSON View (null: View 미지정)
+     * @return
+     */
+    public ObjectWriter getWriter(Class<?> type, Class<?> view) {
+        if ((type == null || type == Object.class) && view == null)
+            return writer;
+
+        WriterKey key = new WriterKey(type, view);
+        ObjectWriter cached = writers.get(key);
+        if (cached != null)
+            return cached;
+
+        ObjectWriter created = view != null ? objectMapper.writerWithView(view) : writer;
+        if (type != null && type != Object.class)
+            created = created.forType(type);
+
+        if (writers.size() >= MAX_WRITERS)
+            return created;
+
+        cached = writers.putIfAbsent(key, created);
+        return cached != null ? cached : created;
+    }
+
+    /**
+     * 캐시된 ObjectWriter 제거 (ObjectMapper 설정 변경시)
+     */
+    public void clear() {
+        writers.clear();
+    }
+
+    public int size() {
+        return writers.size();
+    }
+
+    private static class WriterKey {
+
+        private final Class<?> type;
+
+        private final Class<?> view;
+
+        WriterKey(Class<?> type, Class<?> view) {
+            this.type = type;
+            this.view = view;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof WriterKey))
+                return false;
+
+            WriterKey other = (WriterKey) o;
+            return type == other.type && view == other.view;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (type != null ? type.hashCode() : 0) + (view != null ? view.hashCode() : 0);
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package kr.qusi.spring.servlet.view;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.Test;
+
+/**
+ * {@link DownloadView#isAccepted(HttpServletRequest, String)} Accept-Encoding 해석 (명시된 coding 우선, 그외 "*")
+ */
+public class DownloadViewAcceptEncodingTests {
+
+    @Test
+    public void listedCoding() {
+        assertTrue(accepted("gzip"));
+        assertTrue(accepted("deflate, GZIP"));
+        assertTrue(accepted("gzip;q=0.5"));
+        assertFalse(accepted("gzip;q=0"));
+        assertFalse(accepted("gzip;q=x"));
+        assertFalse(accepted("br, deflate"));
+        assertFalse(accepted(null));
+    }
+
+    @Test
+    public void listedCodingOverridesWildcard() {
+        assertTrue(accepted("*;q=0, gzip"));
+        assertTrue(accepted("*;q=0, gzip;q=0.8"));
+        assertFalse(accepted("*, gzip;q=0"));
+    }
+
+    @Test
+    public void wildcardWhenNotListed() {
+        assertTrue(accepted("br, *"));
+        assertTrue(accepted("*;q=0.1"));
+        assertFalse(accepted("br, *;q=0"));
+    }
+
+    private static boolean accepted(final String header) {
+        HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(
+                DownloadViewAcceptEncodingTests.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return "getHeader".equals(method.getName()) && "Accept-Encoding".equals(args[0]) ? header : null;
+                    }
+                });
+
+        return DownloadView.isAccepted(request, "gzip");
+    }
+
+}
@@ -0,0 +1,70 @@
+package kr.qusi.spring.servlet.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import kr.qusi.spring.servlet.view.DownloadView.Range;
+import org.junit.Test;
+
+/**
+ * {@link Range#parse(String, long)} 범위 해석 (RFC 7233)
+ */
+public class DownloadViewRangeTests {
+
+    private static final long LENGTH = 1000;
+
+    @Test
+    public void firstLast() {
+        assertRange(0, 99, Range.parse("0-99", LENGTH));
+        assertRange(10, 20, Range.parse(" 10 - 20 ", LENGTH));
+        assertRange(999, 999, Range.parse("999-999", LENGTH));
+    }
+
+    @Test
+    public void openEnded() {
+        assertRange(500, 999, Range.parse("500-", LENGTH));
+    }
+
+    @Test
+    public void lastClampedToLength() {
+        assertRange(0, 999, Range.parse("0-5000", LENGTH));
+    }
+
+    @Test
+    public void suffix() {
+        assertRange(900, 999, Range.parse("-100", LENGTH));
+        assertRange(0, 999, Range.parse("-2000", LENGTH));
+    }
+
+    @Test
+    public void unsatisfiable() {
+        assertNull(Range.parse("1000-", LENGTH));
+        assertNull(Range.parse("1000-2000", LENGTH));
+        assertNull(Range.parse("-0", LENGTH));
+        assertNull(Range.parse("-5", 0));
+    }
+
+    @Test
+    public void invalid() {
+        assertSame(Range.INVALID, Range.parse("abc", LENGTH));
+        assertSame(Range.INVALID, Range.parse("-", LENGTH));
+        assertSame(Range.INVALID, Range.parse("x-1", LENGTH));
+        assertSame(Range.INVALID, Range.parse("5-3", LENGTH));
+        assertSame(Range.INVALID, Range.parse("-1-2", LENGTH));
+    }
+
+    @Test
+    public void contentRange() {
+        Range range = Range.parse("0-99", LENGTH);
+
+        assertEquals(100, range.length());
+        assertEquals("bytes 0-99/1000", range.toContentRange(LENGTH));
+    }
+
+    private static void assertRange(long start, long end, Range range) {
+        assertEquals(start, range.start);
+        assertEquals(end, range.end);
+    }
+
+}
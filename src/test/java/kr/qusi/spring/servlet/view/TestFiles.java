@@ -0,0 +1,31 @@
+package kr.qusi.spring.servlet.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * 압축/다운로드 테스트용 데이터 파일 생성
+ */
+public final class TestFiles {
+
+    private TestFiles() {
+    }
+
+    /**
+     * 크기를 seed 로 사용한 임의 데이터 (압축되지 않는 내용, 같은 크기면 같은 내용)
+     */
+    public static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    public static File write(File dir, String name, byte[] data) throws IOException {
+        File file = new File(dir, name);
+        FileUtils.writeByteArrayToFile(file, data);
+        return file;
+    }
+
+}
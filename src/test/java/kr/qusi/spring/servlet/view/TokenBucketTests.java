@@ -0,0 +1,98 @@
+package kr.qusi.spring.servlet.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * {@link TokenBucket} 예약/대기시간 계산
+ */
+public class TokenBucketTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** 실행 지연 허용치 */
+    private static final long TOLERANCE = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    public void unlimited() {
+        TokenBucket bucket = new TokenBucket(0, 1024);
+
+        assertEquals(0, bucket.reserve(Long.MAX_VALUE));
+        assertTrue(bucket.isFull());
+        assertEquals(0, bucket.getBurstNanos());
+    }
+
+    @Test
+    public void burstIsSentImmediately() {
+        TokenBucket bucket = new TokenBucket(1000, 1000);
+
+        assertEquals(SECOND, bucket.getBurstNanos());
+        assertTrue(bucket.isFull());
+        assertEquals(0, bucket.reserve(500));
+        assertEquals(0, bucket.reserve(500));
+        assertFalse(bucket.isFull());
+    }
+
+    @Test
+    public void waitsBeyondBurst() {
+        TokenBucket bucket = new TokenBucket(1000, 1000);
+        bucket.reserve(1000);
+
+        // 순간 허용량 소진 후 1000 바이트는 1초 대기
+        assertNear(SECOND, bucket.reserve(1000));
+        assertNear(2 * SECOND, bucket.reserve(1000));
+    }
+
+    @Test
+    public void largeReservationDoesNotOverflow() {
+        TokenBucket bucket = new TokenBucket(1000000, 1);
+
+        // bytes * 1e9 가 long 범위를 넘는 크기
+        long wait = bucket.reserve(1000000000000L);
+
+        assertTrue(wait > 0);
+        assertNear(1000000 * SECOND, wait);
+    }
+
+    @Test
+    public void concurrentReservationsAreNotLost() throws Exception {
+        final TokenBucket bucket = new TokenBucket(1000, 1);
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+
+        // 8 Thread × 125 바이트 = 1초 분량
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int j = 0; j < 5; j++)
+                        bucket.reserve(25);
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertNear(SECOND, bucket.reserve(0));
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                expected - TOLERANCE <= actual && actual <= expected);
+    }
+
+}
@@ -0,0 +1,181 @@
+package kr.qusi.spring.servlet.view;
+
+import static kr.qusi.spring.servlet.view.TestFiles.random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+
+/**
+ * {@link ZipDownloadView} 응답 zip 구성
+ * 형식별 저장방식(STORED/DEFLATED), 중복 항목명 변경, 미리 읽기 Executor 거부 시 요청 Thread 에서 읽기
+ */
+public class ZipDownloadViewTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @Test
+    public void storesCompressedAndDeflatesOthers() throws Exception {
+        byte[] text = "hello, zip".getBytes("UTF-8");
+        byte[] small = random(100);
+        byte[] large = random(5000);
+
+        ZipDownloadView view = new ZipDownloadView("files.zip");
+        view.setReadAheadSize(1024);
+        view.addEntry("a.txt", new ByteArrayResource(text));
+        view.addEntry("small.png", new ByteArrayResource(small));
+        // readAheadSize 보다 큰 파일은 CRC 를 미리 계산하고 쓸 때 다시 읽음
+        view.addFile(file("large.png", large));
+        // 다시 열 수 없는 Stream 은 압축
+        view.addEntry("stream.png", new InputStreamResource(new ByteArrayInputStream(large)));
+
+        render(view);
+
+        ZipInputStream zip = open();
+        assertEntry(zip, "a.txt", ZipEntry.DEFLATED, text);
+        assertEntry(zip, "small.png", ZipEntry.STORED, small);
+        assertEntry(zip, "large.png", ZipEntry.STORED, large);
+        assertEntry(zip, "stream.png", ZipEntry.DEFLATED, large);
+        assertNull(zip.getNextEntry());
+    }
+
+    @Test
+    public void duplicateNamesAreRenamed() throws Exception {
+        byte[] first = "1".getBytes("UTF-8");
+        byte[] second = "2".getBytes("UTF-8");
+        byte[] third = "3".getBytes("UTF-8");
+
+        ZipDownloadView view = new ZipDownloadView("files.zip");
+        view.addEntry("a.txt", new ByteArrayResource(first));
+        view.addEntry("A.txt", new ByteArrayResource(second));
+        view.addEntry("a.txt", new ByteArrayResource(third));
+
+        render(view);
+
+        ZipInputStream zip = open();
+        assertEntry(zip, "a.txt", ZipEntry.DEFLATED, first);
+        assertEntry(zip, "A (2).txt", ZipEntry.DEFLATED, second);
+        assertEntry(zip, "a (3).txt", ZipEntry.DEFLATED, third);
+        assertNull(zip.getNextEntry());
+    }
+
+    @Test
+    public void deflatesAllWhenStoreCompressedDisabled() throws Exception {
+        byte[] data = random(3000);
+
+        ZipDownloadView view = new ZipDownloadView("files.zip", Collections.singletonList(file("b.png", data)));
+        view.setStoreCompressed(false);
+
+        render(view);
+
+        ZipInputStream zip = open();
+        assertEntry(zip, "b.png", ZipEntry.DEFLATED, data);
+        assertNull(zip.getNextEntry());
+    }
+
+    @Test
+    public void readsInRequestThreadWhenExecutorRejects() throws Exception {
+        byte[] small = random(200);
+        byte[] large = random(5000);
+
+        ZipDownloadView view = new ZipDownloadView("files.zip");
+        view.setReadAheadSize(1024);
+        view.setReadAheadExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        view.addFile(file("c.zip", small));
+        view.addFile(file("d.zip", large));
+        view.addFile(file("e.bin", large));
+
+        render(view);
+
+        ZipInputStream zip = open();
+        assertEntry(zip, "c.zip", ZipEntry.STORED, small);
+        assertEntry(zip, "d.zip", ZipEntry.STORED, large);
+        assertEntry(zip, "e.bin", ZipEntry.DEFLATED, large);
+        assertNull(zip.getNextEntry());
+    }
+
+    private void render(ZipDownloadView view) throws Exception {
+        view.render(Collections.<String, Object>emptyMap(), proxy(HttpServletRequest.class, null),
+                proxy(HttpServletResponse.class, new ServletOutputStream() {
+                    @Override
+                    public void write(int b) {
+                        body.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        body.write(b, off, len);
+                    }
+                }));
+    }
+
+    private ZipInputStream open() {
+        return new ZipInputStream(new ByteArrayInputStream(body.toByteArray()));
+    }
+
+    private File file(String name, byte[] data) throws IOException {
+        return TestFiles.write(folder.getRoot(), name, data);
+    }
+
+    private static void assertEntry(ZipInputStream zip, String name, int method, byte[] data) throws IOException {
+        ZipEntry entry = zip.getNextEntry();
+
+        assertEquals(name, entry.getName());
+        assertEquals(name, method, entry.getMethod());
+        assertArrayEquals(name, data, IOUtils.toByteArray(zip));
+    }
+
+    /**
+     * 출력 Stream 만 제공하는 요청/응답 (그외 메소드는 기본값 반환)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, final ServletOutputStream out) {
+        return (T) Proxy.newProxyInstance(ZipDownloadViewTests.class.getClassLoader(), new Class<?>[]{type},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getOutputStream"))
+                            return out;
+                        if (method.getReturnType() == boolean.class)
+                            return false;
+                        if (method.getReturnType() == int.class)
+                            return 0;
+                        if (method.getReturnType() == long.class)
+                            return 0L;
+
+                        return null;
+                    }
+                });
+    }
+
+}
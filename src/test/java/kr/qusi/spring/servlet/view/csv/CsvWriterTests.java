@@ -0,0 +1,68 @@
+package kr.qusi.spring.servlet.view.csv;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Test;
+
+/**
+ * {@link CsvWriter} 값 escape 및 버퍼 처리 (RFC 4180)
+ */
+public class CsvWriterTests {
+
+    @Test
+    public void plainValues() throws IOException {
+        assertEquals("a,b,c\r\n1,2,3\r\n", write(',', 8192, new String[]{"a", "b", "c"}, new String[]{"1", "2", "3"}));
+    }
+
+    @Test
+    public void nullAndEmptyAreEmptyFields() throws IOException {
+        assertEquals(",,x\r\n", write(',', 8192, new String[]{null, "", "x"}));
+    }
+
+    @Test
+    public void quotesDelimiterQuoteAndLineBreaks() throws IOException {
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"1\r\n2\",\"3\n4\",\"5\r6\"\r\n",
+                write(',', 8192, new String[]{"a,b", "say \"hi\"", "1\r\n2", "3\n4", "5\r6"}));
+    }
+
+    @Test
+    public void tabDelimiter() throws IOException {
+        assertEquals("a,b\t\"c\td\"\r\n", write('\t', 8192, new String[]{"a,b", "c\td"}));
+    }
+
+    @Test
+    public void valuesLongerThanBuffer() throws IOException {
+        String value = "0123456789abcdefghij";
+
+        assertEquals(value + ",\"" + value + ",\"\r\n", write(',', 4, new String[]{value, value + ","}));
+    }
+
+    @Test
+    public void rawCharacter() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out, ',');
+        writer.writeRaw('\uFEFF');
+        writer.write("a");
+        writer.endRow();
+        writer.flush();
+
+        assertEquals("\uFEFFa\r\n", out.toString());
+    }
+
+    private static String write(char delimiter, int bufferSize, String[]... rows) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out, delimiter, bufferSize);
+
+        for (String[] row : rows) {
+            for (String value : row)
+                writer.write(value);
+            writer.endRow();
+        }
+
+        writer.close();
+        return out.toString();
+    }
+
+}
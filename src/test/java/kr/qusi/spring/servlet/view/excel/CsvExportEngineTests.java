@@ -0,0 +1,74 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * {@link CsvExportEngine} 제목행 출력 (지정된 컬럼 또는 첫 행의 키)
+ */
+public class CsvExportEngineTests {
+
+    private final CsvExportEngine engine = new CsvExportEngine();
+
+    @Test
+    public void headerWithoutRowsWhenColumnsGiven() throws Exception {
+        assertEquals("Name,Age\r\n", export(new ArrayList<Map<String, Object>>(), columns()));
+    }
+
+    @Test
+    public void headerFromGivenColumns() throws Exception {
+        assertEquals("Name,Age\r\nkim,30\r\n", export(rows(), columns()));
+    }
+
+    @Test
+    public void headerFromFirstRow() throws Exception {
+        assertEquals("name,age\r\nkim,30\r\n", export(rows(), null));
+    }
+
+    @Test
+    public void emptyWithoutColumns() throws Exception {
+        assertEquals("", export(new ArrayList<Map<String, Object>>(), null));
+    }
+
+    @Test
+    public void noHeader() throws Exception {
+        engine.setHeader(false);
+
+        assertEquals("", export(new ArrayList<Map<String, Object>>(), columns()));
+        assertEquals("kim,30\r\n", export(rows(), columns()));
+    }
+
+    private String export(List<Map<String, Object>> rows, Map<String, String> columns) throws Exception {
+        ExportSource source = new ExportSource(null, Collections.<String, Object>singletonMap("rows", rows))
+                .setColumns(columns);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.export(source, out);
+        return out.toString("UTF-8");
+    }
+
+    private static List<Map<String, Object>> rows() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", "kim");
+        row.put("age", 30);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row);
+        return rows;
+    }
+
+    private static Map<String, String> columns() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("name", "Name");
+        columns.put("age", "Age");
+        return columns;
+    }
+
+}
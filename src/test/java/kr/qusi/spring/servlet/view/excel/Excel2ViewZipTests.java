@@ -0,0 +1,118 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import static kr.qusi.spring.servlet.view.TestFiles.random;
+import static kr.qusi.spring.servlet.view.TestFiles.write;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link Excel2View} 분할 파일 zip 압축
+ * 이미 압축된 형식(.xlsx)의 STORED 저장, 전달받은 CRC 사용과 잘못된 CRC 검출
+ */
+public class Excel2ViewZipTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Excel2View view = new Excel2View();
+
+    @Test
+    public void storesXlsxWithComputedCrc() throws Exception {
+        File dir = folder.newFolder();
+        byte[] part = random(4000);
+        byte[] text = "readme".getBytes("UTF-8");
+        write(dir, "part-1.xlsx", part);
+        write(dir, "readme.txt", text);
+
+        Map<String, byte[]> entries = unzip(zip(dir, Collections.<String, Long>emptyMap()), ZipEntry.STORED,
+                ZipEntry.DEFLATED);
+
+        assertArrayEquals(part, entries.get("part-1.xlsx"));
+        assertArrayEquals(text, entries.get("readme.txt"));
+    }
+
+    @Test
+    public void usesGivenChecksum() throws Exception {
+        File dir = folder.newFolder();
+        byte[] part = random(4000);
+        File file = write(dir, "part-1.xlsx", part);
+
+        Map<String, byte[]> entries = unzip(zip(dir, Collections.singletonMap("part-1.xlsx",
+                FileUtils.checksumCRC32(file))), ZipEntry.STORED);
+
+        assertArrayEquals(part, entries.get("part-1.xlsx"));
+    }
+
+    @Test
+    public void wrongChecksumFailsOnWrite() throws Exception {
+        File dir = folder.newFolder();
+        File file = write(dir, "part-1.xlsx", random(4000));
+
+        try {
+            zip(dir, Collections.singletonMap("part-1.xlsx", FileUtils.checksumCRC32(file) + 1));
+            fail("ZipException expected");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof ZipException);
+        }
+    }
+
+    @Test
+    public void deflatesAllWhenStoreCompressedDisabled() throws Exception {
+        File dir = folder.newFolder();
+        byte[] part = random(4000);
+        write(dir, "part-1.xlsx", part);
+        view.setStoreCompressed(false);
+
+        Map<String, byte[]> entries = unzip(zip(dir, Collections.<String, Long>emptyMap()), ZipEntry.DEFLATED);
+
+        assertArrayEquals(part, entries.get("part-1.xlsx"));
+    }
+
+    private byte[] zip(File dir, Map<String, Long> checksums) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        view.zip(dir, out, checksums);
+        return out.toByteArray();
+    }
+
+    /**
+     * 항목명 순서로 압축 해제하며 저장방식 확인 (항목을 끝까지 읽어 CRC 와 크기 검증)
+     */
+    private static Map<String, byte[]> unzip(byte[] data, int... methods) throws IOException {
+        ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(data));
+        Map<String, byte[]> entries = new TreeMap<>();
+        Map<String, Integer> actualMethods = new TreeMap<>();
+
+        for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+            entries.put(entry.getName(), IOUtils.toByteArray(zip));
+            actualMethods.put(entry.getName(), entry.getMethod());
+        }
+
+        assertEquals(methods.length, entries.size());
+        int i = 0;
+        for (Integer method : actualMethods.values())
+            assertEquals(methods[i++], method.intValue());
+
+        assertNull(zip.getNextEntry());
+        return entries;
+    }
+
+}
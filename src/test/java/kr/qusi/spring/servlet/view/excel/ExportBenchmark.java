@@ -0,0 +1,550 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * ExcelView, Excel2View 메모리/처리량 벤치마크
+ * 생성한 템플릿과 데이터(10k ~ 1M 행)로 생성 방식별 처리량, 첫 바이트까지의 시간, 최대 Heap, 할당량을 측정하여
+ * JSON 으로 출력함 (릴리즈 전 회귀 비교용)
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -Dbenchmark.rows=10000,100000 -Dbenchmark.modes=PIPELINED,STREAMING
+ * </pre>
+ *
+ * 설정 (System property)
+ * <ul>
+ * <li>benchmark.rows: 행 수 목록 (기본값: 10000,100000,1000000)</li>
+ * <li>benchmark.modes: 생성 방식 목록 (기본값: 전체)</li>
+ * <li>benchmark.templates: 템플릿 목록 (기본값: 전체)</li>
+ * <li>benchmark.iterations: 반복 수 (기본값: 3)</li>
+ * <li>benchmark.excelViewMaxRows: ExcelView 최대 행 수 (기본값: 100000, 전체를 메모리에서 변환하므로 제한)</li>
+ * <li>benchmark.output: 결과 파일 (기본값: target/benchmark/export-benchmark.json)</li>
+ * </ul>
+ */
+public class ExportBenchmark {
+
+    /**
+     * 생성 방식
+     */
+    enum Mode {
+        /** ExcelView (jxls, 단일 파일) */
+        EXCEL_VIEW,
+        /** Excel2View 분할 파일 임시폴더 생성 후 zip */
+        SPLIT,
+        /** Excel2View 분할 파일 응답 zip 으로 바로 출력 */
+        PIPELINED,
+        /** Excel2View 분할 파일 병렬 생성 */
+        PARALLEL,
+        /** Excel2View 스트리밍 (SXSSF) */
+        STREAMING
+    }
+
+    /**
+     * 템플릿 (이름, 형식, 열)
+     */
+    enum Template {
+        /** 3열 .xlsx */
+        NARROW("narrow", ".xlsx", "id", "name", "amount"),
+        /** 12열 .xlsx (문자, 숫자, 날짜 혼합) */
+        WIDE("wide", ".xlsx", "id", "code", "name", "category", "owner", "quantity", "price", "amount", "tax",
+                "created", "updated", "memo"),
+        /** 3열 .xls */
+        NARROW_XLS("narrow-legacy", ".xls", "id", "name", "amount");
+
+        private final String name;
+
+        private final String extension;
+
+        private final String[] columns;
+
+        Template(String name, String extension, String... columns) {
+            this.name = name;
+            this.extension = extension;
+            this.columns = columns;
+        }
+
+    }
+
+    private static final int WARMUP_ROWS = 1000;
+
+    /** .xls 시트 최대 행 수 */
+    private static final int MAX_XLS_ROWS = 65000;
+
+    private final File webapp;
+
+    private final ServletContext servletContext;
+
+    private final ExportMetrics metrics = new ExportMetrics();
+
+    private final ThreadPoolTaskExecutor partExecutor = new ThreadPoolTaskExecutor();
+
+    private ExportBenchmark(File webapp) {
+        this.webapp = webapp;
+        this.servletContext = servletContext(webapp);
+
+        partExecutor.setCorePoolSize(Excel2View.DEFAULT_PARALLELISM);
+        partExecutor.setMaxPoolSize(Excel2View.DEFAULT_PARALLELISM);
+        partExecutor.setThreadNamePrefix("benchmark-part-");
+        partExecutor.initialize();
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : System.getProperty("benchmark.rows", "10000,100000,1000000").split(","))
+            sizes.add(Integer.valueOf(size.trim()));
+
+        List<Mode> modes = parse(Mode.class, System.getProperty("benchmark.modes"));
+        List<Template> templates = parse(Template.class, System.getProperty("benchmark.templates"));
+        int iterations = Integer.getInteger("benchmark.iterations", 3);
+        int excelViewMaxRows = Integer.getInteger("benchmark.excelViewMaxRows", 100000);
+        File output = new File(System.getProperty("benchmark.output", "target/benchmark/export-benchmark.json"));
+
+        File webapp = new File(System.getProperty("java.io.tmpdir"), "export-benchmark-" + System.nanoTime());
+        ExportBenchmark benchmark = new ExportBenchmark(webapp);
+
+        try {
+            benchmark.createTemplates();
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (Template template : templates) {
+                for (Mode mode : modes) {
+                    if (!benchmark.supports(template, mode, WARMUP_ROWS, excelViewMaxRows))
+                        continue;
+
+                    benchmark.run(template, mode, WARMUP_ROWS);
+
+                    for (int rows : sizes) {
+                        if (!benchmark.supports(template, mode, rows, excelViewMaxRows))
+                            continue;
+
+                        for (int i = 1; i <= iterations; i++) {
+                            Map<String, Object> result = benchmark.run(template, mode, rows);
+                            result.put("iteration", i);
+                            results.add(result);
+
+                            System.out.println(result);
+                        }
+                    }
+                }
+            }
+
+            benchmark.write(output, results);
+            System.out.println("Results: " + output.getAbsolutePath());
+        } finally {
+            benchmark.partExecutor.shutdown();
+            FileUtils.deleteQuietly(webapp);
+        }
+
+        System.exit(0);
+    }
+
+    private static <E extends Enum<E>> List<E> parse(Class<E> type, String values) {
+        if (values == null || values.trim().isEmpty())
+            return Arrays.asList(type.getEnumConstants());
+
+        List<E> result = new ArrayList<>();
+        for (String value : values.split(","))
+            result.add(Enum.valueOf(type, value.trim().toUpperCase()));
+
+        return result;
+    }
+
+    private boolean supports(Template template, Mode mode, int rows, int excelViewMaxRows) {
+        if (mode == Mode.STREAMING && !Excel2View.EXTENSION_XLSX.equals(template.extension))
+            return false;
+        if (mode == Mode.EXCEL_VIEW && excelViewMaxRows < rows)
+            return false;
+        if (mode == Mode.EXCEL_VIEW && Excel2View.EXTENSION_XLS.equals(template.extension) && MAX_XLS_ROWS < rows)
+            return false;
+
+        return true;
+    }
+
+    /**
+     * 1회 측정
+     */
+    private Map<String, Object> run(Template template, Mode mode, int rows) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("template", template.name + template.extension);
+        result.put("mode", mode.name());
+        result.put("rows", rows);
+
+        metrics.reset();
+        System.gc();
+        resetPeakHeap();
+
+        CountingServletOutputStream out = new CountingServletOutputStream();
+        long start = System.nanoTime();
+
+        try {
+            if (mode == Mode.EXCEL_VIEW)
+                renderExcelView(template, rows, out);
+            else
+                renderExcel2View(template, mode, rows, out);
+        } catch (Throwable e) {
+            result.put("error", e.toString());
+        }
+
+        long elapsed = System.nanoTime() - start;
+        ExportStatistics statistics = metrics.getStatistics("/WEB-INF/excel/" + template.name + template.extension);
+
+        result.put("elapsedMs", elapsed / 1000000.0);
+        result.put("ttfbMs", out.firstByteAt == 0 ? null : (out.firstByteAt - start) / 1000000.0);
+        result.put("rowsPerSecond", rows / (elapsed / 1000000000.0));
+        result.put("bytes", out.count);
+        result.put("parts", statistics != null ? statistics.getParts() : 0);
+        result.put("peakHeapBytes", peakHeap());
+        result.put("allocatedBytes", statistics != null ? statistics.getMaxAllocatedBytes() : 0);
+        result.put("allocationRateBytesPerSecond",
+                statistics != null ? statistics.getMaxAllocatedBytes() / (elapsed / 1000000000.0) : 0);
+
+        return result;
+    }
+
+    private void renderExcelView(Template template, int rows, ServletOutputStream out) throws Exception {
+        ExcelView view = new ExcelView("/WEB-INF/excel/" + template.name);
+        view.setMetrics(metrics);
+
+        // ExcelView 는 전체 데이터를 메모리에서 변환하므로 List 로 전달
+        List<Map<String, Object>> list = new ArrayList<>(rows);
+        Iterator<Map<String, Object>> it = new RowIterator(template, rows);
+        while (it.hasNext())
+            list.add(it.next());
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", "Benchmark " + rows);
+        model.put("rows", list);
+
+        view.render(model, request(), response(out));
+    }
+
+    private void renderExcel2View(Template template, Mode mode, int rows, ServletOutputStream out) throws Exception {
+        Excel2View view = new Excel2View();
+        view.setServletContext(servletContext);
+        view.setViewName(template.name);
+        view.setPrefix("/WEB-INF/excel/");
+        view.setSuffix(template.extension);
+        view.setMetrics(metrics);
+        view.setStreaming(mode == Mode.STREAMING);
+        view.setPipelined(mode == Mode.PIPELINED);
+        if (mode == Mode.PARALLEL)
+            view.setPartExecutor(partExecutor);
+
+        // 데이터는 지연 생성하여 측정 대상(생성 방식)의 메모리 사용량만 반영
+        Excel2View.Bundle bundle = new Excel2View.Bundle();
+        bundle.putExtra("title", "Benchmark " + rows);
+        bundle.putExtra("rows", new RowIterator(template, rows));
+
+        Map<String, Object> model = new HashMap<>();
+        model.put(Excel2View.BUNDLE, bundle);
+
+        view.render(model, request(), response(out));
+    }
+
+    private void createTemplates() throws IOException {
+        File dir = new File(webapp, "WEB-INF/excel");
+        FileUtils.forceMkdir(dir);
+        FileUtils.forceMkdir(new File(webapp, "WEB-INF/tmp"));
+
+        for (Template template : Template.values()) {
+            Workbook workbook = Excel2View.EXTENSION_XLS.equals(template.extension) ? new HSSFWorkbook() : new XSSFWorkbook();
+            Sheet sheet = workbook.createSheet("data");
+
+            sheet.createRow(0).createCell(0).setCellValue("${title}");
+
+            Row header = sheet.createRow(1);
+            Row data = sheet.createRow(2);
+            for (int i = 0; i < template.columns.length; i++) {
+                header.createCell(i).setCellValue(template.columns[i].toUpperCase());
+                data.createCell(i).setCellValue("${rows." + template.columns[i] + "}");
+            }
+
+            OutputStream os = null;
+
+            try {
+                os = new FileOutputStream(new File(dir, template.name + template.extension));
+                workbook.write(os);
+            } finally {
+                IOUtils.closeQuietly(os);
+            }
+        }
+    }
+
+    private void write(File output, List<Map<String, Object>> results) throws IOException {
+        Runtime runtime = Runtime.getRuntime();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", new Date());
+        report.put("java", System.getProperty("java.version"));
+        report.put("vm", System.getProperty("java.vm.name"));
+        report.put("processors", runtime.availableProcessors());
+        report.put("maxHeapBytes", runtime.maxMemory());
+        report.put("results", results);
+
+        FileUtils.forceMkdir(output.getAbsoluteFile().getParentFile());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Heap 영역별 최대 사용량의 합 (근사치)
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        }
+
+        return peak;
+    }
+
+    /**
+     * 행 데이터 지연 생성
+     */
+    private static class RowIterator implements Iterator<Map<String, Object>> {
+
+        private final Template template;
+
+        private final int rows;
+
+        private final long now = System.currentTimeMillis();
+
+        private int index;
+
+        private RowIterator(Template template, int rows) {
+            this.template = template;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < rows;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : template.columns)
+                row.put(column, value(column, index));
+
+            index++;
+            return row;
+        }
+
+        private Object value(String column, int i) {
+            switch (column) {
+                case "id":
+                case "quantity":
+                    return i;
+                case "amount":
+                case "price":
+                case "tax":
+                    return BigDecimal.valueOf(i * 1013L % 1000000, 2);
+                case "created":
+                case "updated":
+                    return new Date(now - i * 60000L);
+                default:
+                    return column + "-" + (i % 997);
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    /**
+     * 응답 크기 및 첫 바이트 시각 기록 (내용은 버림)
+     */
+    private static class CountingServletOutputStream extends ServletOutputStream {
+
+        private long count;
+
+        private long firstByteAt;
+
+        @Override
+        public void write(int b) {
+            write(null, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (firstByteAt == 0 && 0 < len)
+                firstByteAt = System.nanoTime();
+
+            count += len;
+        }
+
+    }
+
+    private static ServletContext servletContext(final File root) {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("javax.servlet.context.tempdir", new File(root, "WEB-INF/tmp"));
+
+        return proxy(ServletContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getResource":
+                        File file = new File(root, (String) args[0]);
+                        return file.exists() ? file.toURI().toURL() : null;
+                    case "getResourceAsStream":
+                        File resource = new File(root, (String) args[0]);
+                        return resource.exists() ? new FileInputStream(resource) : null;
+                    case "getRealPath":
+                        return new File(root, (String) args[0]).getPath();
+                    case "getResourcePaths":
+                        return resourcePaths(root, (String) args[0]);
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "getInitParameterNames":
+                    case "getAttributeNames":
+                        return Collections.enumeration(Collections.emptyList());
+                    case "getContextPath":
+                        return "";
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    private static Set<String> resourcePaths(File root, String path) {
+        File[] files = new File(root, path).listFiles();
+        if (files == null)
+            return null;
+
+        Set<String> paths = new HashSet<>();
+        for (File file : files)
+            paths.add(path + file.getName() + (file.isDirectory() ? "/" : ""));
+
+        return paths;
+    }
+
+    private HttpServletRequest request() {
+        final Map<String, Object> attributes = new HashMap<>();
+
+        return proxy(HttpServletRequest.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getServletContext":
+                        return servletContext;
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "getAttributeNames":
+                        return Collections.enumeration(attributes.keySet());
+                    case "getHeaders":
+                        return Collections.enumeration(Collections.emptyList());
+                    case "getMethod":
+                        return "GET";
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    private static HttpServletResponse response(final ServletOutputStream out) {
+        return proxy(HttpServletResponse.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getOutputStream":
+                        return out;
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    default:
+                        return defaultValue(proxy, method, args);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ExportBenchmark.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return proxy.getClass().getName();
+            default:
+                break;
+        }
+
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+
+        return null;
+    }
+
+}
@@ -0,0 +1,75 @@
+package kr.qusi.spring.servlet.view.excel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+/**
+ * {@link StreamingWorkbookWriter} 데이터 행 수식의 행 참조 이동
+ */
+public class StreamingWorkbookWriterTests {
+
+    @Test
+    public void shiftsRelativeRowReferences() throws IOException {
+        Sheet sheet = write(3, "A2*B2", "SUM($A$2:A2)+$B$1", "SUM(A:A)+Data!B2");
+
+        for (int i = 1; i <= 3; i++) {
+            Row row = sheet.getRow(i);
+            int excelRow = i + 1;
+
+            assertEquals("A" + excelRow + "*B" + excelRow, row.getCell(2).getCellFormula());
+            assertEquals("SUM($A$2:A" + excelRow + ")+$B$1", row.getCell(3).getCellFormula());
+            assertEquals("SUM(A:A)+Data!B" + excelRow, row.getCell(4).getCellFormula());
+        }
+    }
+
+    /**
+     * 헤더 행(0)과 ${items.a}, ${items.b}, 수식으로 구성된 데이터 행(1) 템플릿으로 생성
+     */
+    private static Sheet write(int count, String... formulas) throws IOException {
+        XSSFWorkbook template = new XSSFWorkbook();
+        Sheet sheet = template.createSheet("Data");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("A");
+        header.createCell(1).setCellValue(10);
+
+        Row data = sheet.createRow(1);
+        data.createCell(0).setCellValue("${items.a}");
+        data.createCell(1).setCellValue("${items.b}");
+        for (int i = 0; i < formulas.length; i++)
+            data.createCell(2 + i).setCellFormula(formulas[i]);
+
+        ByteArrayOutputStream templateBytes = new ByteArrayOutputStream();
+        template.write(templateBytes);
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("a", i);
+            item.put("b", i * 2);
+            items.add(item);
+        }
+
+        // jxls 가 적재 데이터에 POI 객체를 추가하므로 변경 가능한 Map 사용
+        Map<String, Object> beans = new HashMap<>();
+        beans.put("items", items);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = new StreamingWorkbookWriter().write(new ByteArrayInputStream(templateBytes.toByteArray()),
+                beans, out);
+        assertEquals(count, written);
+
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray())).getSheetAt(0);
+    }
+
+}